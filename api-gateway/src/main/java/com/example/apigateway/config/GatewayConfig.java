@@ -1,9 +1,12 @@
 package com.example.apigateway.config;
 
+import com.example.apigateway.filter.CborTranscoder;
 import com.example.apigateway.filter.JwtAuthenticationFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.factory.rewrite.RewriteFunction;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -17,6 +20,12 @@ public class GatewayConfig {
     @Autowired
     private JwtAuthenticationFilter filter;
 
+    @Autowired
+    private CborTranscoder cborTranscoder;
+
+    @Value("${gateway.transcoding.cbor-upstream:true}")
+    private boolean cborUpstream;
+
     @Bean
     public RouteLocator routes(RouteLocatorBuilder builder) {
         logger.info("Configuring Gateway routes with JWT authentication");
@@ -25,9 +34,22 @@ public class GatewayConfig {
                 .route("auth-service", r -> r.path("/auth/**")
                         .filters(f -> f.addRequestHeader("X-Gateway-Source", "api-gateway"))
                         .uri("http://localhost:8000"))
+                // Avatar images are public, content-addressed and streamed as-is (no JWT, no transcoding)
+                .route("user-avatars", r -> r.path("/users/avatars/**").and().method("GET", "HEAD")
+                        .filters(f -> f.addRequestHeader("X-Gateway-Source", "api-gateway"))
+                        .uri("lb://USER-SERVICE"))
                 .route("user-service", r -> r.path("/users/**")
-                        .filters(f -> f.filter(filter.apply(new JwtAuthenticationFilter.Config()))
-                                .addRequestHeader("X-Gateway-Source", "api-gateway"))
+                        .filters(f -> {
+                            f.filter(filter.apply(new JwtAuthenticationFilter.Config()))
+                                    .addRequestHeader("X-Gateway-Source", "api-gateway");
+                            // CBOR between gateway and user-service, JSON towards the client
+                            if (cborUpstream) {
+                                RewriteFunction<byte[], byte[]> toJson = cborTranscoder::toJson;
+                                f.filter(cborTranscoder.upstreamCbor())
+                                        .modifyResponseBody(byte[].class, byte[].class, toJson);
+                            }
+                            return f;
+                        })
                         .uri("lb://USER-SERVICE"))
                 .route("post-service", r -> r.path("/posts/**")
                         .filters(f -> f.filter(filter.apply(new JwtAuthenticationFilter.Config()))
@@ -41,6 +63,16 @@ public class GatewayConfig {
                         .filters(f -> f.filter(filter.apply(new JwtAuthenticationFilter.Config()))
                                 .addRequestHeader("X-Gateway-Source", "api-gateway"))
                         .uri("lb://TARGET-SERVICE"))
+                // WebSocket upgrade must be declared before the plain HTTP route for the same prefix.
+                // Both take the JWT from ?access_token= since browsers cannot set headers on WebSocket/EventSource
+                .route("notification-service-ws", r -> r.path("/notifications/ws/**")
+                        .filters(f -> f.filter(filter.apply(new JwtAuthenticationFilter.Config().setQueryTokenAllowed(true)))
+                                .addRequestHeader("X-Gateway-Source", "api-gateway"))
+                        .uri("lb:ws://NOTIFICATION-SERVICE"))
+                .route("notification-service", r -> r.path("/notifications/**")
+                        .filters(f -> f.filter(filter.apply(new JwtAuthenticationFilter.Config().setQueryTokenAllowed(true)))
+                                .addRequestHeader("X-Gateway-Source", "api-gateway"))
+                        .uri("lb://NOTIFICATION-SERVICE"))
                 .build();
     }
 }
\ No newline at end of file
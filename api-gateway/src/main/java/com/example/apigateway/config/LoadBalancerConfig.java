@@ -0,0 +1,55 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.loadbalancer.HealthyInstanceListSupplier;
+import com.example.apigateway.loadbalancer.InstanceHealthTracker;
+import com.example.apigateway.loadbalancer.InstanceStatsRegistry;
+import com.example.apigateway.loadbalancer.LatencyAwareLoadBalancer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerZoneConfig;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.InstanceSupplierConfiguration.class)
+public class LoadBalancerConfig {
+
+    /**
+     * Applied to every {@code lb://} service in its own child context, so it is
+     * deliberately not a {@code @Configuration} picked up by component scanning.
+     */
+    static class InstanceSupplierConfiguration {
+
+        /**
+         * Discovery list (refreshed from the Eureka delta every few seconds) behind a
+         * short-lived cache, with recently failed instances filtered out on every call.
+         */
+        @Bean
+        public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+            return ServiceInstanceListSupplier.builder()
+                    .withDiscoveryClient()
+                    .withCaching()
+                    .with((ctx, delegate) -> new HealthyInstanceListSupplier(delegate,
+                            ctx.getBean(InstanceHealthTracker.class), ctx.getBean(InstanceStatsRegistry.class)))
+                    .build(context);
+        }
+
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+                Environment environment, LoadBalancerClientFactory clientFactory,
+                InstanceStatsRegistry statsRegistry, LoadBalancerZoneConfig zoneConfig) {
+            String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            String zone = environment.getProperty("gateway.loadbalancer.zone-affinity", Boolean.class, true)
+                    ? zoneConfig.getZone()
+                    : null;
+            return new LatencyAwareLoadBalancer(
+                    clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    statsRegistry, zone);
+        }
+    }
+}
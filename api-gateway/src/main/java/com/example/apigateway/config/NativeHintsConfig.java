@@ -0,0 +1,64 @@
+package com.example.apigateway.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the AOT/native build (mvn -Pcds / -Pnative).
+ * Covers the Eureka client model and the jjwt implementation classes.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    /**
+     * Eureka client model, (de)serialized reflectively by the Eureka Jackson codecs.
+     */
+    private static final List<String> EUREKA_TYPES = List.of(
+            "com.netflix.appinfo.InstanceInfo",
+            "com.netflix.appinfo.InstanceInfo$InstanceStatus",
+            "com.netflix.appinfo.InstanceInfo$PortType",
+            "com.netflix.appinfo.InstanceInfo$ActionType",
+            "com.netflix.appinfo.LeaseInfo",
+            "com.netflix.appinfo.DataCenterInfo",
+            "com.netflix.appinfo.DataCenterInfo$Name",
+            "com.netflix.appinfo.MyDataCenterInfo",
+            "com.netflix.appinfo.AmazonInfo",
+            "com.netflix.discovery.shared.Application",
+            "com.netflix.discovery.shared.Applications",
+            "com.netflix.discovery.converters.jackson.DataCenterTypeInfoResolver",
+            "com.netflix.discovery.converters.jackson.builder.ApplicationsJacksonBuilder");
+
+    /**
+     * jjwt-api locates its implementation and JSON codec reflectively at runtime.
+     */
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : EUREKA_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type, MemberCategory.values());
+            }
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type, MemberCategory.values());
+            }
+        }
+    }
+}
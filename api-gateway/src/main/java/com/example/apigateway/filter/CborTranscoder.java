@@ -0,0 +1,114 @@
+package com.example.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Lets a route talk CBOR to the service behind it while external clients keep getting
+ * JSON. {@link #upstreamCbor()} asks the service for CBOR (JSON stays acceptable as a
+ * fallback) unless the client asked for CBOR itself; {@link #toJson} is the
+ * modifyResponseBody rewrite that streams CBOR tokens back out as JSON.
+ */
+@Component
+public class CborTranscoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CborTranscoder.class);
+
+    public static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    private static final String TRANSCODE_ATTR = CborTranscoder.class.getName() + ".transcode";
+    private static final List<MediaType> UPSTREAM_ACCEPT = List.of(
+            APPLICATION_CBOR, MediaType.APPLICATION_JSON.withQualityValue(0.9));
+
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Counter cborBytes;
+    private final Counter jsonBytes;
+
+    @Autowired
+    public CborTranscoder(MeterRegistry meterRegistry) {
+        this.cborBytes = Counter.builder("gateway.transcoding.bytes")
+                .description("Response bytes received from services and sent to clients by transcoding routes")
+                .baseUnit("bytes")
+                .tag("format", "cbor")
+                .register(meterRegistry);
+        this.jsonBytes = Counter.builder("gateway.transcoding.bytes")
+                .description("Response bytes received from services and sent to clients by transcoding routes")
+                .baseUnit("bytes")
+                .tag("format", "json")
+                .register(meterRegistry);
+    }
+
+    public GatewayFilter upstreamCbor() {
+        return (exchange, chain) -> {
+            List<MediaType> accept = exchange.getRequest().getHeaders().getAccept();
+            boolean clientWantsCbor = accept.stream().anyMatch(APPLICATION_CBOR::equalsTypeAndSubtype);
+            if (clientWantsCbor) {
+                return chain.filter(exchange);
+            }
+
+            exchange.getAttributes().put(TRANSCODE_ATTR, Boolean.TRUE);
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> headers.setAccept(UPSTREAM_ACCEPT))
+                    .build();
+            return chain.filter(exchange.mutate().request(request).build());
+        };
+    }
+
+    public Mono<byte[]> toJson(ServerWebExchange exchange, byte[] body) {
+        if (body == null) {
+            return Mono.empty();
+        }
+        MediaType contentType = exchange.getResponse().getHeaders().getContentType();
+        if (!Boolean.TRUE.equals(exchange.getAttribute(TRANSCODE_ATTR))
+                || contentType == null || !APPLICATION_CBOR.equalsTypeAndSubtype(contentType)) {
+            return Mono.just(body);
+        }
+
+        byte[] json = transcode(body);
+        cborBytes.increment(body.length);
+        jsonBytes.increment(json.length);
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return Mono.just(json);
+    }
+
+    /**
+     * Token-by-token copy; no intermediate tree is built.
+     */
+    public byte[] transcode(byte[] cbor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(cbor.length * 2);
+        try (JsonParser parser = cborFactory.createParser(cbor);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not transcode CBOR response to JSON: {}", e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
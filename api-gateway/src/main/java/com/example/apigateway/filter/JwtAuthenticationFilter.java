@@ -1,6 +1,7 @@
 package com.example.apigateway.filter;
 
 import com.example.apigateway.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
@@ -8,25 +9,35 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final String ACCESS_TOKEN_PARAM = "access_token";
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private Tracer tracer;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public JwtAuthenticationFilter() {
         super(Config.class);
     }
@@ -34,7 +45,9 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            ServerHttpRequest request = exchange.getRequest();
+            ServerHttpRequest request = config.isQueryTokenAllowed()
+                    ? withQueryToken(exchange.getRequest())
+                    : exchange.getRequest();
 
             // Create tracing span for JWT authentication
             Span span = tracer.nextSpan()
@@ -50,7 +63,7 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                     span.tag("auth.skip", "true");
                     span.tag("auth.reason", "auth-endpoint");
                     logger.info("Skipping JWT validation for auth endpoint: {}", request.getURI().getPath());
-                    return chain.filter(exchange)
+                    return chain.filter(exchange.mutate().request(request).build())
                             .doFinally(signalType -> span.end());
                 }
 
@@ -60,7 +73,7 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                     span.tag("auth.result", "missing-header");
                     span.tag("error", "No Authorization header");
                     logger.warn("Missing Authorization header for request: {}", request.getURI().getPath());
-                    return onError(exchange, "No Authorization header", HttpStatus.UNAUTHORIZED, span);
+                    return onError(exchange, "No Authorization header", "missing-header", HttpStatus.UNAUTHORIZED, span);
                 }
 
                 String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
@@ -68,7 +81,8 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                     span.tag("auth.result", "invalid-header-format");
                     span.tag("error", "Invalid Authorization header format");
                     logger.warn("Invalid Authorization header format for request: {}", request.getURI().getPath());
-                    return onError(exchange, "Invalid Authorization header format", HttpStatus.UNAUTHORIZED, span);
+                    return onError(exchange, "Invalid Authorization header format", "invalid-header-format",
+                            HttpStatus.UNAUTHORIZED, span);
                 }
 
                 String token = authHeader.substring(7);
@@ -107,16 +121,46 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                     span.tag("error", e.getMessage());
                     logger.error("JWT validation failed for request: {} - Error: {}",
                             request.getURI().getPath(), e.getMessage());
-                    return onError(exchange, "Invalid JWT token: " + e.getMessage(), HttpStatus.UNAUTHORIZED, span);
+                    return onError(exchange, "Invalid JWT token: " + e.getMessage(), "token-validation-failed",
+                            HttpStatus.UNAUTHORIZED, span);
                 }
             }
         };
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String error, HttpStatus httpStatus, Span span) {
+    /**
+     * Moves an {@code access_token} query parameter into the Authorization header (unless
+     * one is already set) and strips it from the URI, so the token is neither proxied nor
+     * recorded in the span's URL.
+     */
+    private ServerHttpRequest withQueryToken(ServerHttpRequest request) {
+        String token = request.getQueryParams().getFirst(ACCESS_TOKEN_PARAM);
+        if (token == null) {
+            return request;
+        }
+
+        URI stripped = UriComponentsBuilder.fromUri(request.getURI())
+                .replaceQueryParam(ACCESS_TOKEN_PARAM)
+                .build(true)
+                .toUri();
+        ServerHttpRequest.Builder builder = request.mutate().uri(stripped);
+        if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            builder.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private Mono<Void> onError(ServerWebExchange exchange, String error, String reason, HttpStatus httpStatus,
+                               Span span) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(httpStatus);
 
+        // Tagged by route id and a fixed reason, never by path or token contents
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.auth.rejections",
+                "routeId", route != null ? route.getId() : "unknown",
+                "reason", reason).increment();
+
         // Add final tags before ending span
         span.tag("http.status_code", httpStatus.toString());
         span.tag("auth.final.result", "error");
@@ -130,6 +174,17 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
     }
 
     public static class Config {
-        // Configuration properties can be added here
+        // Browsers cannot set an Authorization header on WebSocket or EventSource
+        // requests, so routes serving those accept the token as ?access_token= instead
+        private boolean queryTokenAllowed;
+
+        public boolean isQueryTokenAllowed() {
+            return queryTokenAllowed;
+        }
+
+        public Config setQueryTokenAllowed(boolean queryTokenAllowed) {
+            this.queryTokenAllowed = queryTokenAllowed;
+            return this;
+        }
     }
 }
\ No newline at end of file
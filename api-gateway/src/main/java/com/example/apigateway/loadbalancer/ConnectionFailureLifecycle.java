@@ -0,0 +1,78 @@
+package com.example.apigateway.loadbalancer;
+
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+
+/**
+ * Watches the outcome of every load-balanced gateway request and ejects the chosen
+ * instance as soon as connecting to it fails.
+ */
+@Component
+public class ConnectionFailureLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final InstanceHealthTracker healthTracker;
+
+    @Autowired
+    public ConnectionFailureLifecycle(InstanceHealthTracker healthTracker) {
+        this.healthTracker = healthTracker;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+
+        switch (completionContext.status()) {
+            case FAILED -> {
+                if (isConnectFailure(completionContext.getThrowable())) {
+                    healthTracker.connectionFailed(lbResponse.getServer());
+                }
+            }
+            case SUCCESS -> healthTracker.succeeded(lbResponse.getServer());
+            default -> {
+            }
+        }
+    }
+
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
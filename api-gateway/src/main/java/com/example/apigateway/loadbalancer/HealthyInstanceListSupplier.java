@@ -0,0 +1,54 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Filters instances the gateway recently failed to connect to out of the (cached)
+ * discovery list. Falls back to the full list if every instance is ejected, so a
+ * brief network blip cannot take a whole service offline. Also prunes the stats of
+ * instances that left discovery, using the unfiltered list, so an ejected instance
+ * keeps its latency and warm-up state for when it returns.
+ */
+public class HealthyInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final InstanceHealthTracker healthTracker;
+    private final InstanceStatsRegistry statsRegistry;
+
+    // The caching delegate hands out the same list until discovery refreshes it
+    private volatile List<ServiceInstance> lastSeen;
+
+    public HealthyInstanceListSupplier(ServiceInstanceListSupplier delegate, InstanceHealthTracker healthTracker,
+                                       InstanceStatsRegistry statsRegistry) {
+        super(delegate);
+        this.healthTracker = healthTracker;
+        this.statsRegistry = statsRegistry;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate().get().map(this::withoutEjected);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return getDelegate().get(request).map(this::withoutEjected);
+    }
+
+    private List<ServiceInstance> withoutEjected(List<ServiceInstance> instances) {
+        if (instances != lastSeen) {
+            lastSeen = instances;
+            statsRegistry.retainOnly(instances);
+        }
+
+        List<ServiceInstance> healthy = instances.stream()
+                .filter(instance -> !healthTracker.isEjected(instance))
+                .toList();
+        return healthy.isEmpty() ? instances : healthy;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.apigateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instances the gateway could not connect to. They are kept out of load balancing for
+ * {@code gateway.loadbalancer.ejection-ms} so requests stop going to a dead instance
+ * while the registry has not evicted it yet.
+ */
+@Component
+public class InstanceHealthTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceHealthTracker.class);
+
+    private final long ejectionMs;
+    private final Map<String, Long> ejectedUntil = new ConcurrentHashMap<>();
+
+    public InstanceHealthTracker(@Value("${gateway.loadbalancer.ejection-ms:30000}") long ejectionMs) {
+        this.ejectionMs = ejectionMs;
+    }
+
+    public static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    public void connectionFailed(ServiceInstance instance) {
+        Long previous = ejectedUntil.put(key(instance), System.currentTimeMillis() + ejectionMs);
+        if (previous == null) {
+            logger.warn("Ejecting {} from load balancing for {} ms after connection failure", key(instance), ejectionMs);
+        }
+    }
+
+    public void succeeded(ServiceInstance instance) {
+        if (ejectedUntil.remove(key(instance)) != null) {
+            logger.info("Instance {} is reachable again", key(instance));
+        }
+    }
+
+    public boolean isEjected(ServiceInstance instance) {
+        String key = key(instance);
+        Long until = ejectedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            // Ejection expired: let traffic probe the instance again
+            ejectedUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    public Map<String, Long> ejectedInstances() {
+        return Map.copyOf(ejectedUntil);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.apigateway.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live load figures for one service instance: requests in flight and a peak-sensitive
+ * EWMA of response latency. A slower sample replaces the average immediately, faster
+ * samples pull it down gradually, and the value decays while the instance is idle so
+ * it eventually gets probed again.
+ */
+public class InstanceStats {
+
+    private final long createdAtNanos = System.nanoTime();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private double ewmaNanos;
+    private long lastSampleNanos;
+    private boolean sampled;
+
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param latencyNanos request latency, or a negative value for requests whose
+     *                     duration says nothing about instance speed (long-lived streams)
+     */
+    public void requestFinished(long latencyNanos, boolean failed, long decayNanos) {
+        inFlight.decrementAndGet();
+        requests.incrementAndGet();
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        if (latencyNanos < 0) {
+            return;
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (!sampled || latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastSampleNanos = now;
+            sampled = true;
+        }
+    }
+
+    public synchronized boolean hasSamples() {
+        return sampled;
+    }
+
+    /**
+     * @return the latency average decayed for the time since the last sample
+     */
+    public synchronized double latencyNanos(long decayNanos) {
+        if (!sampled) {
+            return 0;
+        }
+        double idle = System.nanoTime() - lastSampleNanos;
+        return ewmaNanos * Math.exp(-idle / decayNanos);
+    }
+
+    public int inFlight() {
+        return Math.max(0, inFlight.get());
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    public long ageMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAtNanos);
+    }
+}
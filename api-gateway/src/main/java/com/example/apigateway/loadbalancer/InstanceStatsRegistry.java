@@ -0,0 +1,75 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance stats shared by the latency-aware load balancers of every service and
+ * the lifecycle that feeds them.
+ */
+@Component
+public class InstanceStatsRegistry {
+
+    private final long decayNanos;
+    private final long warmupMs;
+    private final double minWarmupWeight;
+
+    private final Map<String, Map<String, InstanceStats>> statsByService = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(@Value("${gateway.loadbalancer.ewma-decay-ms:10000}") long decayMs,
+                                 @Value("${gateway.loadbalancer.warmup-ms:30000}") long warmupMs,
+                                 @Value("${gateway.loadbalancer.min-warmup-weight:0.1}") double minWarmupWeight) {
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+        this.warmupMs = warmupMs;
+        this.minWarmupWeight = minWarmupWeight;
+    }
+
+    public InstanceStats stats(ServiceInstance instance) {
+        return statsByService
+                .computeIfAbsent(instance.getServiceId(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(InstanceHealthTracker.key(instance), key -> new InstanceStats());
+    }
+
+    /**
+     * Forgets instances that left the discovery list, so one that comes back is
+     * warmed up again instead of resuming with stale figures.
+     */
+    public void retainOnly(Collection<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        Map<String, InstanceStats> stats = statsByService.get(instances.iterator().next().getServiceId());
+        if (stats != null) {
+            Set<String> keys = instances.stream().map(InstanceHealthTracker::key).collect(Collectors.toSet());
+            // Entries with requests still in flight are kept until those complete
+            stats.entrySet().removeIf(entry -> !keys.contains(entry.getKey()) && entry.getValue().inFlight() == 0);
+        }
+    }
+
+    public long decayNanos() {
+        return decayNanos;
+    }
+
+    /**
+     * @return share of full traffic a new instance may take, growing linearly to 1
+     * over the warm-up period
+     */
+    public double warmupWeight(InstanceStats stats) {
+        if (warmupMs <= 0) {
+            return 1;
+        }
+        return Math.max(minWarmupWeight, Math.min(1, (double) stats.ageMillis() / warmupMs));
+    }
+
+    public Map<String, Map<String, InstanceStats>> snapshot() {
+        return Map.copyOf(statsByService);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices balancer: picks two random instances and sends the request to
+ * the one with the lower cost, where cost is latency EWMA times requests in flight,
+ * inflated for instances still warming up. Instances in the gateway's own zone are
+ * preferred whenever the zone has any.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    static final String ZONE_METADATA_KEY = "zone";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceStatsRegistry statsRegistry;
+    private final String zone;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    InstanceStatsRegistry statsRegistry, String zone) {
+        this.supplierProvider = supplierProvider;
+        this.statsRegistry = statsRegistry;
+        this.zone = zone;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidates = sameZone(instances);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        double fallbackLatency = averageLatency(candidates);
+        return new DefaultResponse(cost(a, fallbackLatency) <= cost(b, fallbackLatency) ? a : b);
+    }
+
+    private List<ServiceInstance> sameZone(List<ServiceInstance> instances) {
+        if (zone == null || zone.isBlank()) {
+            return instances;
+        }
+        List<ServiceInstance> local = instances.stream()
+                .filter(instance -> zone.equalsIgnoreCase(instance.getMetadata().get(ZONE_METADATA_KEY)))
+                .toList();
+        return local.isEmpty() ? instances : local;
+    }
+
+    private double cost(ServiceInstance instance, double fallbackLatency) {
+        InstanceStats stats = statsRegistry.stats(instance);
+        // An instance without samples is assumed to be as fast as its peers, not free
+        double latency = stats.hasSamples() ? stats.latencyNanos(statsRegistry.decayNanos()) : fallbackLatency;
+        return Math.max(latency, 1) * (stats.inFlight() + 1) / statsRegistry.warmupWeight(stats);
+    }
+
+    private double averageLatency(List<ServiceInstance> instances) {
+        double total = 0;
+        int sampled = 0;
+        for (ServiceInstance instance : instances) {
+            InstanceStats stats = statsRegistry.stats(instance);
+            if (stats.hasSamples()) {
+                total += stats.latencyNanos(statsRegistry.decayNanos());
+                sampled++;
+            }
+        }
+        return sampled == 0 ? 1 : total / sampled;
+    }
+}
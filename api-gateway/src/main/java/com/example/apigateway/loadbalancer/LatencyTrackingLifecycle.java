@@ -0,0 +1,82 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds request start/finish of every load-balanced gateway request into
+ * {@link InstanceStatsRegistry}.
+ */
+@Component
+public class LatencyTrackingLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final InstanceStatsRegistry statsRegistry;
+
+    @Autowired
+    public LatencyTrackingLifecycle(InstanceStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        request.getContext().setRequestStartTime(System.nanoTime());
+        statsRegistry.stats(lbResponse.getServer()).requestStarted();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+
+        RequestDataContext context = completionContext.getLoadBalancerRequest().getContext();
+        long startTime = context.getRequestStartTime();
+        long latency = startTime > 0 && !isStream(context.getClientRequest()) ? System.nanoTime() - startTime : -1;
+
+        ResponseData response = completionContext.getClientResponse();
+        HttpStatusCode status = response != null ? response.getHttpStatus() : null;
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (status != null && status.is5xxServerError());
+
+        statsRegistry.stats(lbResponse.getServer())
+                .requestFinished(latency, failed, statsRegistry.decayNanos());
+    }
+
+    /**
+     * WebSocket and SSE requests last as long as the connection, so their duration
+     * must not count as latency.
+     */
+    private static boolean isStream(RequestData request) {
+        if (request == null || request.getHeaders() == null) {
+            return false;
+        }
+        HttpHeaders headers = request.getHeaders();
+        return "websocket".equalsIgnoreCase(headers.getUpgrade())
+                || headers.getAccept().contains(MediaType.TEXT_EVENT_STREAM);
+    }
+}
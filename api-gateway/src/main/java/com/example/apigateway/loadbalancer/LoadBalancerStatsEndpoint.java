@@ -0,0 +1,55 @@
+package com.example.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-instance load balancer stats as the {@code loadbalancer} actuator endpoint
+ * ({@code /actuator/loadbalancer} when exposed).
+ */
+@Component
+@Endpoint(id = "loadbalancer")
+public class LoadBalancerStatsEndpoint {
+
+    private final InstanceStatsRegistry statsRegistry;
+    private final InstanceHealthTracker healthTracker;
+
+    @Autowired
+    public LoadBalancerStatsEndpoint(InstanceStatsRegistry statsRegistry, InstanceHealthTracker healthTracker) {
+        this.statsRegistry = statsRegistry;
+        this.healthTracker = healthTracker;
+    }
+
+    @ReadOperation
+    public Map<String, List<Map<String, Object>>> stats() {
+        Map<String, Long> ejected = healthTracker.ejectedInstances();
+        Map<String, List<Map<String, Object>>> result = new TreeMap<>();
+
+        statsRegistry.snapshot().forEach((serviceId, instances) -> result.put(serviceId,
+                instances.entrySet().stream()
+                        .map(entry -> describe(entry.getKey(), entry.getValue(), ejected.get(entry.getKey())))
+                        .toList()));
+        return result;
+    }
+
+    private Map<String, Object> describe(String instance, InstanceStats stats, Long ejectedUntil) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("instance", instance);
+        view.put("ewmaLatencyMs", TimeUnit.NANOSECONDS.toMicros(
+                (long) stats.latencyNanos(statsRegistry.decayNanos())) / 1000.0);
+        view.put("inFlight", stats.inFlight());
+        view.put("requests", stats.requests());
+        view.put("failures", stats.failures());
+        view.put("warmupWeight", statsRegistry.warmupWeight(stats));
+        view.put("ejectedUntil", ejectedUntil);
+        return view;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.JavaFlightRecorderProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks with the GC allocation profiler and writes JSON results to
+ * {@code target/jmh/<label>.json}, where the label defaults to a timestamp and can be
+ * set to a commit id with {@code -Dbench.label=...} to compare runs between commits.
+ * Any standard JMH command-line option overrides these defaults; pass
+ * {@code -Dbench.jfr=true} to also record a JFR file per benchmark.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("com\\.example\\.benchmarks\\..*");
+        }
+
+        if (!commandLine.getResult().hasValue()) {
+            String label = System.getProperty("bench.label", "");
+            if (label.isBlank()) {
+                label = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            }
+            File output = new File("target/jmh/" + label + ".json");
+            output.getParentFile().mkdirs();
+            options.result(output.getPath());
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+            if (Boolean.getBoolean("bench.jfr")) {
+                options.addProfiler(JavaFlightRecorderProfiler.class, "dir=target/jmh/jfr");
+            }
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.benchmarks;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * HS256 tokens shaped like the ones auth-service issues, signed with the gateway's
+ * docker-profile secret. The benchmarks inject {@link #SECRET} into JwtUtil themselves,
+ * so it only has to be long enough for HS256.
+ */
+final class BenchmarkTokens {
+
+    static final String SECRET = "supersecretkeyforjwttokensshouldbelongerthaninproduction";
+
+    private BenchmarkTokens() {
+    }
+
+    static String valid(String username) {
+        return sign(username, SECRET);
+    }
+
+    static String signedWithOtherKey(String username) {
+        return sign(username, SECRET + "-rotated");
+    }
+
+    private static String sign(String username, String secret) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(username)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
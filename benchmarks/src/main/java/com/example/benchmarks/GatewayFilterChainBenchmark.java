@@ -0,0 +1,92 @@
+package com.example.benchmarks;
+
+import com.example.apigateway.filter.JwtAuthenticationFilter;
+import com.example.apigateway.filter.TracingGlobalFilter;
+import com.example.apigateway.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TracingGlobalFilter} followed by {@link JwtAuthenticationFilter} on a mock
+ * exchange, with a terminal chain that answers 200 in place of the proxy call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GatewayFilterChainBenchmark {
+
+    private TracingGlobalFilter tracingFilter;
+    private GatewayFilter jwtFilter;
+    private GatewayFilterChain downstream;
+    private String validToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", BenchmarkTokens.SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "tracer", Tracer.NOOP);
+
+        JwtAuthenticationFilter jwtFilterFactory = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilterFactory, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtFilterFactory, "tracer", Tracer.NOOP);
+        ReflectionTestUtils.setField(jwtFilterFactory, "meterRegistry", new SimpleMeterRegistry());
+        jwtFilter = jwtFilterFactory.apply(new JwtAuthenticationFilter.Config());
+
+        tracingFilter = new TracingGlobalFilter();
+        ReflectionTestUtils.setField(tracingFilter, "tracer", Tracer.NOOP);
+
+        downstream = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+        validToken = BenchmarkTokens.valid("bench-user");
+    }
+
+    @Benchmark
+    public HttpStatusCode authenticated() {
+        return run(MockServerHttpRequest.get("/users/42")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + validToken)
+                .build());
+    }
+
+    @Benchmark
+    public HttpStatusCode missingAuthorization() {
+        return run(MockServerHttpRequest.get("/users/42").build());
+    }
+
+    @Benchmark
+    public HttpStatusCode authEndpointBypass() {
+        return run(MockServerHttpRequest.post("/auth/login").build());
+    }
+
+    private HttpStatusCode run(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        tracingFilter.filter(exchange, ex -> jwtFilter.filter(ex, downstream)).block();
+        return exchange.getResponse().getStatusCode();
+    }
+}
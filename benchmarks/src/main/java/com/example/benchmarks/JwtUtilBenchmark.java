@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.apigateway.util.JwtUtil;
+import io.micrometer.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String validToken;
+    private String foreignToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", BenchmarkTokens.SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "tracer", Tracer.NOOP);
+
+        validToken = BenchmarkTokens.valid("bench-user");
+        foreignToken = BenchmarkTokens.signedWithOtherKey("bench-user");
+    }
+
+    @Benchmark
+    public void validateToken() {
+        jwtUtil.validateToken(validToken);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(validToken);
+    }
+
+    /**
+     * What the gateway filter does per request: validate, then parse again for the subject.
+     */
+    @Benchmark
+    public String validateThenExtract() {
+        jwtUtil.validateToken(validToken);
+        return jwtUtil.extractUsername(validToken);
+    }
+
+    @Benchmark
+    public void rejectForeignSignature(Blackhole blackhole) {
+        try {
+            jwtUtil.validateToken(foreignToken);
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.benchmarks;
+
+import com.example.userservice.model.User;
+import com.example.userservice.web.dto.UserResponse;
+import com.example.userservice.web.view.UserView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of one {@code GET /users} page: the JPA entity through the
+ * reflective bean serializer against {@link UserResponse} in each view. Run with the
+ * GC profiler (the default in {@link BenchmarkRunner}) to see allocation per page;
+ * the payload size of each shape is printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserSerializationBenchmark {
+
+    @Param({"50"})
+    private int pageSize;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    private ObjectWriter writer;
+    private List<User> entities;
+    private List<UserResponse> compact;
+    private List<UserResponse> list;
+    private List<UserResponse> full;
+    private ByteArrayOutputStream buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same builder Boot uses for the MVC converter
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+        writer = mapper.writer();
+
+        entities = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            entities.add(new User((long) i, "user" + i, "Bench User " + i, "user" + i + "@bench.local",
+                    "https://cdn.bench.local/avatars/" + i + ".png",
+                    "Writes about distributed systems, performance and coffee. ".repeat(4)));
+        }
+        compact = project(UserView.COMPACT);
+        list = project(UserView.LIST);
+        full = project(UserView.FULL);
+        buffer = new ByteArrayOutputStream(64 * 1024);
+
+        System.out.printf("%nPayload bytes per page of %d: entity=%d full=%d list=%d compact=%d%n", pageSize,
+                writer.writeValueAsBytes(entities).length, writer.writeValueAsBytes(full).length,
+                writer.writeValueAsBytes(list).length, writer.writeValueAsBytes(compact).length);
+    }
+
+    private List<UserResponse> project(UserView view) {
+        return entities.stream().map(user -> UserResponse.of(user, view.fields())).toList();
+    }
+
+    private int write(Object value) throws IOException {
+        buffer.reset();
+        writer.writeValue(buffer, value);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int entityReflective() throws IOException {
+        return write(entities);
+    }
+
+    @Benchmark
+    public int responseFull() throws IOException {
+        return write(full);
+    }
+
+    @Benchmark
+    public int responseList() throws IOException {
+        return write(list);
+    }
+
+    @Benchmark
+    public int responseCompact() throws IOException {
+        return write(compact);
+    }
+}
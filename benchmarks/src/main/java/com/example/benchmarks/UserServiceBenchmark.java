@@ -0,0 +1,105 @@
+package com.example.benchmarks;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code UserServiceImpl} lookups through the full Spring/JPA stack against an
+ * in-memory H2 database. Messaging, discovery and span export are switched off so
+ * only the service, repository and database are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"10000"})
+    private int userCount;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        // schema.sql holds PostgreSQL-only search indexes
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.open-in-view=false",
+                        "spring.cloud.gateway.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "eureka.client.enabled=false",
+                        "outbox.relay.enabled=false",
+                        // Measure the repository path, not the profile cache
+                        "user.cache.enabled=false",
+                        "management.tracing.sampling.probability=0.0",
+                        "logging.level.root=WARN")
+                .run();
+
+        UserRepository repository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User(null, "user" + i, "Bench User " + i, "user" + i + "@bench.local", null, null));
+        }
+        firstId = repository.saveAll(users).get(0).getId();
+
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User getUserById() {
+        return userService.getUserById(firstId + ThreadLocalRandom.current().nextInt(userCount));
+    }
+
+    @Benchmark
+    public User getUserByUsername() {
+        return userService.getUserByUsername("user" + ThreadLocalRandom.current().nextInt(userCount));
+    }
+
+    @Benchmark
+    public void getUserByUsernameMiss(Blackhole blackhole) {
+        try {
+            userService.getUserByUsername("missing" + ThreadLocalRandom.current().nextInt(userCount));
+        } catch (RuntimeException e) {
+            blackhole.consume(e);
+        }
+    }
+}
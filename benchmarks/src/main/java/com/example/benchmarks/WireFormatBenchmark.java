@@ -0,0 +1,127 @@
+package com.example.benchmarks;
+
+import com.example.apigateway.filter.CborTranscoder;
+import com.example.userservice.model.User;
+import com.example.userservice.web.dto.UserDto;
+import com.example.userservice.web.dto.UserResponse;
+import com.example.userservice.web.view.UserView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode/decode CPU of JSON against CBOR for a list page of {@link UserResponse} and a
+ * batch of {@link UserDto}, plus the gateway's CBOR-to-JSON transcoding. Bytes on the
+ * wire, raw and gzipped, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"50", "500"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<UserResponse> page;
+    private List<UserDto> batch;
+    private byte[] encodedPage;
+    private byte[] encodedBatch;
+    private CborTranscoder transcoder;
+    private byte[] cborPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same builders the services use for their message converters
+        ObjectMapper mapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writer();
+        // Internal callers decode into their own DTO and ignore the fields they don't know
+        reader = mapper.readerFor(UserDto[].class);
+
+        page = new ArrayList<>(size);
+        batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User((long) i, "user" + i, "Bench User " + i, "user" + i + "@bench.local",
+                    "https://cdn.bench.local/avatars/" + i + ".png",
+                    "Writes about distributed systems, performance and coffee. ".repeat(4));
+            page.add(UserResponse.of(user, UserView.LIST.fields()));
+            batch.add(new UserDto(user.getUsername(), user.getEmail(), user.getFullName(), user.getBio()));
+        }
+        encodedPage = writer.writeValueAsBytes(page);
+        encodedBatch = writer.writeValueAsBytes(batch);
+
+        transcoder = new CborTranscoder(new SimpleMeterRegistry());
+        cborPage = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build().writeValueAsBytes(page);
+
+        System.out.printf("%n%s size=%d: page %d bytes (gzip %d), batch %d bytes (gzip %d)%n", format, size,
+                encodedPage.length, gzipped(encodedPage), encodedBatch.length, gzipped(encodedBatch));
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public byte[] encodeListPage() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public UserDto[] decodeListPage() throws IOException {
+        return reader.readValue(encodedPage);
+    }
+
+    @Benchmark
+    public byte[] encodeBatch() throws IOException {
+        return writer.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public UserDto[] decodeBatch() throws IOException {
+        return reader.readValue(encodedBatch);
+    }
+
+    /**
+     * Gateway cost of serving a CBOR upstream response to a JSON client; independent of
+     * the {@code format} parameter.
+     */
+    @Benchmark
+    public byte[] gatewayTranscodeListPage() {
+        return transcoder.transcode(cborPage);
+    }
+}
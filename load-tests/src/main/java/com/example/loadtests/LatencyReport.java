@@ -0,0 +1,80 @@
+package com.example.loadtests;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints per-operation throughput and latency percentiles for a phase and writes the
+ * full percentile distribution (.hgrm, plottable with HdrHistogram's plotter) to the
+ * report directory.
+ */
+final class LatencyReport {
+
+    private final Path directory;
+
+    LatencyReport(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    void print(PhaseResult result, PrintStream out) {
+        double seconds = result.durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf(Locale.ROOT, "%n=== target %d req/s for %.0fs ===%n", result.targetRate, seconds);
+        out.printf(Locale.ROOT, "%-16s %9s %8s %9s %9s %9s %9s %9s %9s %12s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "svc p99 ms");
+
+        for (Operation operation : Operation.values()) {
+            Histogram response = result.responseTime.get(operation);
+            if (response.getTotalCount() > 0) {
+                row(out, operation.key(), response, result.serviceTime.get(operation),
+                        result.errors.get(operation).sum(), seconds);
+            }
+        }
+        Histogram total = result.totalResponseTime();
+        Histogram totalService = new Histogram(total.getHighestTrackableValue(), 3);
+        result.serviceTime.values().forEach(totalService::add);
+        row(out, "total", total, totalService, result.totalErrors(), seconds);
+
+        if (result.skipped.sum() > 0) {
+            out.printf("WARNING: %d requests were not sent because max-in-flight was reached; "
+                    + "they are counted as errors at the request timeout%n", result.skipped.sum());
+        }
+    }
+
+    void writeDistribution(PhaseResult result) throws IOException {
+        Path file = directory.resolve(result.targetRate + "rps.hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Recorded in microseconds, reported in milliseconds
+            result.totalResponseTime().outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    static double p99Millis(PhaseResult result) {
+        return result.totalResponseTime().getValueAtPercentile(99.0) / 1000.0;
+    }
+
+    private static void row(PrintStream out, String name, Histogram response, Histogram service,
+                            long errors, double seconds) {
+        out.printf(Locale.ROOT, "%-16s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                name,
+                response.getTotalCount(),
+                errors,
+                response.getTotalCount() / seconds,
+                response.getValueAtPercentile(50) / 1000.0,
+                response.getValueAtPercentile(90) / 1000.0,
+                response.getValueAtPercentile(99) / 1000.0,
+                response.getValueAtPercentile(99.9) / 1000.0,
+                response.getMaxValue() / 1000.0,
+                service.getValueAtPercentile(99) / 1000.0);
+    }
+}
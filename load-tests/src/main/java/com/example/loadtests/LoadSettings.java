@@ -0,0 +1,79 @@
+package com.example.loadtests;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings layered from {@code load-test.properties}, {@code profiles/<profile>.properties}
+ * and {@code -D} system properties, in that order.
+ */
+record LoadSettings(String profile,
+                    String target,
+                    String jwtSecret,
+                    Duration jwtTtl,
+                    int rate,
+                    int rampStep,
+                    int rampMax,
+                    Duration duration,
+                    Duration warmup,
+                    boolean poisson,
+                    int seedUsers,
+                    int hotUsers,
+                    int maxInFlight,
+                    Duration requestTimeout,
+                    long sloP99Millis,
+                    Map<Operation, Integer> mix,
+                    String reportDir) {
+
+    static LoadSettings load() {
+        String profile = System.getProperty("profile", "smoke");
+        Properties properties = new Properties();
+        read(properties, "load-test.properties");
+        read(properties, "profiles/" + profile + ".properties");
+        properties.putAll(System.getProperties());
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, Integer.parseInt(properties.getProperty("mix." + operation.key(), "0")));
+        }
+
+        return new LoadSettings(
+                profile,
+                properties.getProperty("target"),
+                properties.getProperty("jwt.secret"),
+                Duration.ofMinutes(Long.parseLong(properties.getProperty("jwt.ttl-minutes"))),
+                Integer.parseInt(properties.getProperty("rate")),
+                Integer.parseInt(properties.getProperty("ramp-step")),
+                Integer.parseInt(properties.getProperty("ramp-max")),
+                Duration.parse(properties.getProperty("duration")),
+                Duration.parse(properties.getProperty("warmup")),
+                "poisson".equalsIgnoreCase(properties.getProperty("arrival")),
+                Integer.parseInt(properties.getProperty("seed-users")),
+                Integer.parseInt(properties.getProperty("hot-users")),
+                Integer.parseInt(properties.getProperty("max-in-flight")),
+                Duration.parse(properties.getProperty("request-timeout")),
+                Long.parseLong(properties.getProperty("slo-p99-ms")),
+                mix,
+                properties.getProperty("report-dir"));
+    }
+
+    private static void read(Properties properties, String resource) {
+        try (InputStream in = LoadSettings.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown load-test resource: " + resource);
+            }
+            Properties layer = new Properties();
+            layer.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            properties.putAll(layer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.loadtests;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Drives the gateway on :8080 with a mix of signups, profile reads by id and username,
+ * avatar updates and listing calls, each carrying a JWT minted like auth-service's.
+ *
+ * <p>Start the stack with {@code docker compose up -d}, then run
+ * {@code mvn -f load-tests/pom.xml compile exec:java -Dprofile=<smoke|baseline|stress|ramp>}.
+ * Any setting from {@code load-test.properties} can be overridden with {@code -D},
+ * e.g. {@code -Drate=300 -Dtarget=http://gateway-host:8080}.
+ *
+ * <p>The ramp profile raises the arrival rate step by step and stops at the first step
+ * whose p99 exceeds {@code slo-p99-ms}, reporting the highest rate that met it.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.load();
+        LatencyReport report = new LatencyReport(Path.of(settings.reportDir(),
+                settings.profile() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+
+        System.out.printf("Profile %s against %s (%s arrivals)%n",
+                settings.profile(), settings.target(), settings.poisson() ? "poisson" : "constant");
+
+        OpenLoopDriver driver = new OpenLoopDriver(settings);
+        driver.seed();
+        System.out.printf("Seeded %d users%n", driver.knownUsers());
+
+        if (!settings.warmup().isZero()) {
+            System.out.printf("Warming up for %s at %d req/s%n", settings.warmup(), settings.rate());
+            driver.run(settings.rate(), settings.warmup());
+        }
+
+        int lastPassingRate = -1;
+        int rate = settings.rate();
+        while (true) {
+            PhaseResult result = driver.run(rate, settings.duration());
+            report.print(result, System.out);
+            report.writeDistribution(result);
+
+            boolean passed = LatencyReport.p99Millis(result) <= settings.sloP99Millis()
+                    && result.skipped.sum() == 0;
+            if (passed) {
+                lastPassingRate = rate;
+            }
+
+            if (settings.rampStep() <= 0 || !passed || rate + settings.rampStep() > settings.rampMax()) {
+                break;
+            }
+            rate += settings.rampStep();
+        }
+
+        if (settings.rampStep() > 0) {
+            System.out.printf("%nHighest rate meeting p99 <= %d ms: %s%n", settings.sloP99Millis(),
+                    lastPassingRate > 0 ? lastPassingRate + " req/s" : "none");
+        }
+        System.out.printf("Percentile distributions written to %s%n", report.directory());
+        System.exit(0);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.loadtests;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model generator: requests are started on a fixed schedule (constant or Poisson
+ * inter-arrival times) regardless of how many earlier requests are still outstanding,
+ * the way independent users arrive. A slow server therefore builds up in-flight
+ * requests instead of silently lowering the offered load.
+ */
+final class OpenLoopDriver {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern USERNAME_PATTERN = Pattern.compile("\"username\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final LoadSettings settings;
+    private final HttpClient client;
+    private final TokenMinter tokens;
+    private final UserPool users = new UserPool();
+    private final Operation[] mixTable;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong signupSequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoopDriver(LoadSettings settings) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.tokens = new TokenMinter(settings.jwtSecret(), settings.jwtTtl());
+        this.mixTable = buildMixTable(settings.mix());
+    }
+
+    /**
+     * Creates the initial users with a bounded number of concurrent signups.
+     */
+    void seed() throws InterruptedException {
+        Semaphore permits = new Semaphore(32);
+        for (int i = 0; i < settings.seedUsers(); i++) {
+            permits.acquire();
+            client.sendAsync(signupRequest(nextUsername()), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        if (response != null) {
+                            rememberSignup(response);
+                        }
+                        permits.release();
+                    });
+        }
+        permits.acquire(32);
+        permits.release(32);
+
+        if (users.size() == 0) {
+            throw new IllegalStateException("No users could be created through " + settings.target()
+                    + "; is the stack up and does jwt.secret match the gateway?");
+        }
+    }
+
+    int knownUsers() {
+        return users.size();
+    }
+
+    /**
+     * Offers {@code rate} requests per second for {@code duration}, then waits for the
+     * stragglers (up to the request timeout) before returning.
+     */
+    PhaseResult run(int rate, Duration duration) throws InterruptedException {
+        PhaseResult result = new PhaseResult(rate, duration.toNanos());
+        SplittableRandom random = new SplittableRandom();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double intended = start;
+
+        while (intended < end) {
+            long intendedStart = (long) intended;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = mixTable[random.nextInt(mixTable.length)];
+            if (inFlight.get() >= settings.maxInFlight()) {
+                // The generator itself is saturated; count the arrival rather than omit it
+                result.recordSkipped(operation, settings.requestTimeout().toNanos());
+            } else {
+                dispatch(operation, intendedStart, result);
+            }
+
+            intended += settings.poisson()
+                    ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+        }
+
+        long deadline = System.nanoTime() + settings.requestTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return result;
+    }
+
+    private void dispatch(Operation operation, long intendedStart, PhaseResult result) {
+        HttpRequest request = request(operation);
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+
+        CompletableFuture<? extends HttpResponse<?>> response = operation == Operation.SIGNUP
+                ? client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                : client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+
+        response.whenComplete((httpResponse, error) -> {
+            long done = System.nanoTime();
+            boolean failed = error != null || httpResponse.statusCode() >= 400;
+            result.record(operation, intendedStart, sent, done, failed);
+            if (!failed && operation == Operation.SIGNUP) {
+                rememberSignup(httpResponse);
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private HttpRequest request(Operation operation) {
+        if (operation == Operation.SIGNUP) {
+            return signupRequest(nextUsername());
+        }
+
+        UserPool.KnownUser user = operation == Operation.HOT_PROFILE || operation == Operation.HOT_UPDATE
+                ? users.hot(settings.hotUsers())
+                : users.random();
+        HttpRequest.Builder builder = switch (operation) {
+            case GET_BY_ID -> HttpRequest.newBuilder(uri("/users/" + user.id())).GET();
+            case GET_BY_USERNAME, HOT_PROFILE -> HttpRequest.newBuilder(uri("/users/username/" + user.username()))
+                    .GET();
+            case UPDATE_AVATAR, HOT_UPDATE -> HttpRequest.newBuilder(uri("/users/" + user.id()
+                            + "/avatar?avatarUrl=https://cdn.dopost.local/avatars/" + user.id() + ".png"))
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+            case LIST -> HttpRequest.newBuilder(uri("/users")).GET();
+            case AUTOCOMPLETE -> HttpRequest.newBuilder(uri("/users/autocomplete?q="
+                    + prefixOf(user.username()))).GET();
+            case SEARCH -> HttpRequest.newBuilder(uri("/users/search?q=" + withTypo(user.username()))).GET();
+            case SIGNUP -> throw new IllegalStateException();
+        };
+        return builder
+                .timeout(settings.requestTimeout())
+                .header("Authorization", tokens.bearer(user.username()))
+                .build();
+    }
+
+    /**
+     * What a user has typed so far: the first 1-4 characters of a known username.
+     */
+    private static String prefixOf(String username) {
+        int length = Math.min(username.length(), 1 + ThreadLocalRandom.current().nextInt(4));
+        return username.substring(0, length);
+    }
+
+    /**
+     * A known username with one character replaced, to exercise the trigram path.
+     */
+    private static String withTypo(String username) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = username.toCharArray();
+        chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+
+    private HttpRequest signupRequest(String username) {
+        String body = """
+                {"username":"%s","email":"%s@loadtest.local","fullName":"Load Test %s","bio":"generated by load-tests"}"""
+                .formatted(username, username, username);
+        return HttpRequest.newBuilder(uri("/users"))
+                .timeout(settings.requestTimeout())
+                .header("Authorization", tokens.bearer(username))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void rememberSignup(HttpResponse<?> response) {
+        if (response.statusCode() / 100 != 2 || !(response.body() instanceof String body)) {
+            return;
+        }
+        Matcher id = ID_PATTERN.matcher(body);
+        Matcher username = USERNAME_PATTERN.matcher(body);
+        if (id.find() && username.find()) {
+            users.add(Long.parseLong(id.group(1)), username.group(1));
+        }
+    }
+
+    private String nextUsername() {
+        return "lt-" + runId + "-" + signupSequence.incrementAndGet();
+    }
+
+    private URI uri(String path) {
+        return URI.create(settings.target() + path);
+    }
+
+    private static Operation[] buildMixTable(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Traffic mix has no weights");
+        }
+        Operation[] table = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                table[index++] = entry.getKey();
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.loadtests;
+
+/**
+ * Request types in the traffic mix; each maps to one gateway route on user-service.
+ */
+enum Operation {
+    GET_BY_ID("get-by-id"),
+    GET_BY_USERNAME("get-by-username"),
+    UPDATE_AVATAR("update-avatar"),
+    SIGNUP("signup"),
+    LIST("list"),
+    AUTOCOMPLETE("autocomplete"),
+    SEARCH("search"),
+    HOT_PROFILE("hot-profile"),
+    HOT_UPDATE("hot-update");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.loadtests;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one measured phase, in microseconds. Response time is measured from
+ * the moment the request was scheduled to start, so time spent waiting behind a
+ * stalled server or a lagging generator is counted (coordinated-omission corrected);
+ * service time is measured from the moment it was actually sent. Arrivals the
+ * generator could not send count as failures at the request timeout, so they raise the
+ * response-time percentiles instead of dropping out of them.
+ */
+final class PhaseResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    final int targetRate;
+    final long durationNanos;
+    final Map<Operation, Histogram> responseTime = new EnumMap<>(Operation.class);
+    final Map<Operation, Histogram> serviceTime = new EnumMap<>(Operation.class);
+    final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    final LongAdder skipped = new LongAdder();
+
+    PhaseResult(int targetRate, long durationNanos) {
+        this.targetRate = targetRate;
+        this.durationNanos = durationNanos;
+        for (Operation operation : Operation.values()) {
+            responseTime.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            serviceTime.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long intendedStartNanos, long sentNanos, long doneNanos, boolean failed) {
+        responseTime.get(operation).recordValue(toMicros(doneNanos - intendedStartNanos));
+        serviceTime.get(operation).recordValue(toMicros(doneNanos - sentNanos));
+        if (failed) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * An arrival dropped at max-in-flight: its user would have waited at least as long
+     * as the request timeout, so it is recorded as a failed response of that length.
+     */
+    void recordSkipped(Operation operation, long timeoutNanos) {
+        responseTime.get(operation).recordValue(toMicros(timeoutNanos));
+        errors.get(operation).increment();
+        skipped.increment();
+    }
+
+    Histogram totalResponseTime() {
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        responseTime.values().forEach(total::add);
+        return total;
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.loadtests;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mints tokens the way auth-service does: HS256 over {@code {"sub": username, "exp": ...}}.
+ * One token per user is cached for the run, like a client reusing its access token.
+ */
+final class TokenMinter {
+
+    private final SecretKey key;
+    private final Duration ttl;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    TokenMinter(String secret, Duration ttl) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.ttl = ttl;
+    }
+
+    String bearer(String username) {
+        return "Bearer " + tokens.computeIfAbsent(username, this::mint);
+    }
+
+    private String mint(String username) {
+        return Jwts.builder()
+                .setSubject(username)
+                .setExpiration(new Date(System.currentTimeMillis() + ttl.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
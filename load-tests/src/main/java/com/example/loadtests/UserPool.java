@@ -0,0 +1,36 @@
+package com.example.loadtests;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Users known to exist in user-service: seeded before the run and grown by signups.
+ */
+final class UserPool {
+
+    record KnownUser(long id, String username) {
+    }
+
+    private final List<KnownUser> users = new CopyOnWriteArrayList<>();
+
+    void add(long id, String username) {
+        users.add(new KnownUser(id, username));
+    }
+
+    int size() {
+        return users.size();
+    }
+
+    KnownUser random() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    /**
+     * One of the first {@code count} seeded users: the "celebrity" profiles that take a
+     * disproportionate share of reads.
+     */
+    KnownUser hot(int count) {
+        return users.get(ThreadLocalRandom.current().nextInt(Math.min(count, users.size())));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.notificationservice.config;
+
+import com.example.notificationservice.model.DeliveryLane;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-lane settings under {@code notification.lanes.<transactional|social|bulk>}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification")
+public class LaneProperties {
+
+    private Map<String, Lane> lanes = new LinkedHashMap<>();
+
+    public Lane lane(DeliveryLane lane) {
+        return lanes.computeIfAbsent(lane.key(), key -> new Lane());
+    }
+
+    @Data
+    public static class Lane {
+        /** Routing keys on the events exchange that feed this lane. */
+        private List<String> bindingKeys = new ArrayList<>();
+        private int concurrency = 1;
+        private int maxConcurrency = 2;
+        private int prefetch = 250;
+        /** SMTP connections (and sender threads) reserved for this lane. */
+        private int smtpConnections = 2;
+        /** Relative share per tenant for weighted fair dequeuing; unlisted tenants get 1. */
+        private Map<String, Integer> tenantWeights = new HashMap<>();
+    }
+}
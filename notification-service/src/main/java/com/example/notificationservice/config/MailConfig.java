@@ -0,0 +1,29 @@
+package com.example.notificationservice.config;
+
+import jakarta.mail.Session;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+@Configuration
+@EnableConfigurationProperties({MailProperties.class, LaneProperties.class})
+public class MailConfig {
+
+    /**
+     * Shared JavaMail session; each delivery lane opens its own pool of transports from it.
+     */
+    @Bean
+    public Session smtpSession(MailProperties mailProperties) {
+        Properties properties = new Properties();
+        properties.putAll(mailProperties.getProperties());
+        properties.put("mail.transport.protocol", "smtp");
+        properties.put("mail.smtp.host", mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            properties.put("mail.smtp.port", String.valueOf(mailProperties.getPort()));
+        }
+        return Session.getInstance(properties);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.notificationservice.config;
+
+import com.example.notificationservice.model.DeliveryLane;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Topology for consuming events. Every delivery lane gets its own queue bound to the
+ * events exchange, a TTL delay queue that dead-letters back into it for retries, a
+ * terminal dead-letter queue and its own listener container with its own concurrency.
+ */
+@Configuration
+public class RabbitConfig {
+
+    @Value("${notification.consumer.exchange:user.events}")
+    private String exchange;
+
+    @Value("${notification.consumer.retry-delay-ms:10000}")
+    private int retryDelayMs;
+
+    @Value("${notification.consumer.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notification.consumer.batch-receive-timeout-ms:200}")
+    private long batchReceiveTimeoutMs;
+
+    public static String retryQueueName(String queue) {
+        return queue + ".retry";
+    }
+
+    public static String deadLetterQueueName(String queue) {
+        return queue + ".dlq";
+    }
+
+    @Bean
+    public TopicExchange userEventsExchange() {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    @Bean
+    public Declarables laneTopology(TopicExchange userEventsExchange, LaneProperties laneProperties) {
+        List<Declarable> declarables = new ArrayList<>();
+
+        for (DeliveryLane lane : DeliveryLane.values()) {
+            String queue = lane.queueName();
+
+            // Anything nacked without requeue still ends up in the DLQ
+            Queue laneQueue = QueueBuilder.durable(queue)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(deadLetterQueueName(queue))
+                    .build();
+            declarables.add(laneQueue);
+            declarables.add(QueueBuilder.durable(retryQueueName(queue))
+                    .ttl(retryDelayMs)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queue)
+                    .build());
+            declarables.add(QueueBuilder.durable(deadLetterQueueName(queue)).build());
+
+            for (String bindingKey : laneProperties.lane(lane).getBindingKeys()) {
+                declarables.add(BindingBuilder.bind(laneQueue).to(userEventsExchange).with(bindingKey));
+            }
+        }
+
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory transactionalListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            LaneProperties laneProperties) {
+        return laneContainerFactory(configurer, connectionFactory, laneProperties.lane(DeliveryLane.TRANSACTIONAL));
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory socialListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            LaneProperties laneProperties) {
+        return laneContainerFactory(configurer, connectionFactory, laneProperties.lane(DeliveryLane.SOCIAL));
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory bulkListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            LaneProperties laneProperties) {
+        return laneContainerFactory(configurer, connectionFactory, laneProperties.lane(DeliveryLane.BULK));
+    }
+
+    private SimpleRabbitListenerContainerFactory laneContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            LaneProperties.Lane lane) {
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setConcurrentConsumers(lane.getConcurrency());
+        factory.setMaxConcurrentConsumers(Math.max(lane.getConcurrency(), lane.getMaxConcurrency()));
+        factory.setPrefetchCount(lane.getPrefetch());
+
+        // Deliver up to batchSize messages per listener call and ack them with one multiple-ack
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchReceiveTimeoutMs);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+
+        return factory;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.notificationservice.config;
+
+import com.example.notificationservice.push.AuthUserHandshakeInterceptor;
+import com.example.notificationservice.push.PushWebSocketHandler;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * Push gateway endpoints. Both WebSocket and SSE run on Tomcat's NIO connector, so an
+ * idle connection costs a socket and a few small buffers but no thread.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final PushWebSocketHandler pushWebSocketHandler;
+
+    @Value("${notification.push.websocket.allowed-origins:*}")
+    private String[] allowedOrigins;
+
+    @Autowired
+    public WebSocketConfig(PushWebSocketHandler pushWebSocketHandler) {
+        this.pushWebSocketHandler = pushWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(pushWebSocketHandler, "/notifications/ws")
+                .addInterceptors(new AuthUserHandshakeInterceptor())
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${notification.push.websocket.max-text-buffer:4096}") int maxTextBuffer,
+            @Value("${notification.push.websocket.max-binary-buffer:1024}") int maxBinaryBuffer,
+            @Value("${notification.push.websocket.idle-timeout-ms:0}") long idleTimeoutMs) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        // Clients only send pings, so inbound buffers can be tiny
+        container.setMaxTextMessageBufferSize(maxTextBuffer);
+        container.setMaxBinaryMessageBufferSize(maxBinaryBuffer);
+        container.setMaxSessionIdleTimeout(idleTimeoutMs);
+        return container;
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> pushConnectorCustomizer(
+            @Value("${notification.push.socket.app-read-buffer:2048}") int appReadBuffer,
+            @Value("${notification.push.socket.app-write-buffer:2048}") int appWriteBuffer) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            // Tomcat defaults to 8 KB per direction per connection
+            connector.setProperty("socket.appReadBufSize", String.valueOf(appReadBuffer));
+            connector.setProperty("socket.appWriteBufSize", String.valueOf(appWriteBuffer));
+        });
+    }
+
+    @Bean
+    public DirectExchange pushExchange(@Value("${notification.push.exchange:notification.push}") String exchange) {
+        return new DirectExchange(exchange, true, false);
+    }
+
+    @Bean
+    public Queue pushNodeQueue() {
+        // Private, auto-delete queue for this node; shard bindings are added on demand by PushRouter
+        return new AnonymousQueue(new Base64UrlNamingStrategy("notification.push."));
+    }
+}
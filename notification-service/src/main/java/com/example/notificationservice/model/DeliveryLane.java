@@ -0,0 +1,19 @@
+package com.example.notificationservice.model;
+
+/**
+ * Priority lanes for notification delivery. Each lane has its own queue, consumers
+ * and SMTP connections, so a bulk campaign cannot delay password resets.
+ */
+public enum DeliveryLane {
+    TRANSACTIONAL,
+    SOCIAL,
+    BULK;
+
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    public String queueName() {
+        return "notification." + key();
+    }
+}
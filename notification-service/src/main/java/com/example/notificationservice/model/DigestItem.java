@@ -0,0 +1,25 @@
+package com.example.notificationservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One coalescible event reduced to what a digest needs. {@code messageId} identifies the
+ * source message, so a redelivered message is not counted twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestItem {
+    private String messageId;
+    private String recipient;
+    private String recipientName;
+    private String eventType;
+    private String summary;
+    private long at;
+
+    public String key() {
+        return recipient + "|" + eventType;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.notificationservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailMessage {
+    private String to;
+    private String subject;
+    private String body;
+}
@@ -0,0 +1,33 @@
+package com.example.notificationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Event envelope shared by all services: {@code event_type}, {@code data}, {@code source_service}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEvent {
+
+    @JsonProperty("event_type")
+    private String eventType;
+
+    private Map<String, Object> data;
+
+    @JsonProperty("source_service")
+    private String sourceService;
+
+    @JsonProperty("occurred_at")
+    private String occurredAt;
+
+    public String dataValue(String key) {
+        Object value = data != null ? data.get(key) : null;
+        return value != null ? value.toString() : null;
+    }
+}
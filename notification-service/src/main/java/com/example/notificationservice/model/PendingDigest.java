@@ -0,0 +1,53 @@
+package com.example.notificationservice.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Events of one type for one recipient that are waiting to be sent as a single email.
+ */
+@Data
+@NoArgsConstructor
+public class PendingDigest {
+    private String recipient;
+    private String recipientName;
+    private String eventType;
+    private int count;
+    private long firstAt;
+    private long lastAt;
+    private List<String> samples = new ArrayList<>();
+
+    public PendingDigest(DigestItem item) {
+        this.recipient = item.getRecipient();
+        this.recipientName = item.getRecipientName();
+        this.eventType = item.getEventType();
+        this.firstAt = item.getAt();
+    }
+
+    public String key() {
+        return recipient + "|" + eventType;
+    }
+
+    public void add(DigestItem item, int maxSamples) {
+        count++;
+        lastAt = Math.max(lastAt, item.getAt());
+        if (item.getSummary() != null && samples.size() < maxSamples) {
+            samples.add(item.getSummary());
+        }
+    }
+
+    public void merge(PendingDigest other, int maxSamples) {
+        count += other.count;
+        firstAt = Math.min(firstAt, other.firstAt);
+        lastAt = Math.max(lastAt, other.lastAt);
+        for (String sample : other.samples) {
+            if (samples.size() >= maxSamples) {
+                break;
+            }
+            samples.add(sample);
+        }
+    }
+}
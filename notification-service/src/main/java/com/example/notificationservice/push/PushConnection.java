@@ -0,0 +1,20 @@
+package com.example.notificationservice.push;
+
+/**
+ * One client connection that can receive pushed notifications.
+ */
+public interface PushConnection {
+
+    String getUsername();
+
+    String getTransport();
+
+    /**
+     * Writes the payload without blocking on a slow client.
+     *
+     * @return false if the connection is dead and should be unregistered
+     */
+    boolean send(String eventType, String payload);
+
+    void close();
+}
@@ -0,0 +1,96 @@
+package com.example.notificationservice.push;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections held by this node, keyed by the username injected by the gateway.
+ */
+@Component
+public class PushConnectionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushConnectionRegistry.class);
+
+    private final PushRouter pushRouter;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Set<PushConnection>> connections = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> connectionsByTransport = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PushConnectionRegistry(PushRouter pushRouter, MeterRegistry meterRegistry) {
+        this.pushRouter = pushRouter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void register(PushConnection connection) {
+        connections.computeIfAbsent(connection.getUsername(), key -> ConcurrentHashMap.newKeySet())
+                .add(connection);
+        transportCounter(connection.getTransport()).incrementAndGet();
+        pushRouter.connectionOpened(connection.getUsername());
+        logger.debug("Registered {} push connection for user: {}", connection.getTransport(), connection.getUsername());
+    }
+
+    public void unregister(PushConnection connection) {
+        boolean[] removed = new boolean[1];
+        connections.computeIfPresent(connection.getUsername(), (username, set) -> {
+            removed[0] = set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+
+        // Close callbacks can fire more than once (timeout, then completion)
+        if (removed[0]) {
+            transportCounter(connection.getTransport()).decrementAndGet();
+            pushRouter.connectionClosed(connection.getUsername());
+        }
+    }
+
+    /**
+     * @return number of local connections the payload was written to
+     */
+    public int deliver(String username, String eventType, String payload) {
+        Set<PushConnection> userConnections = connections.get(username);
+        if (userConnections == null) {
+            return 0;
+        }
+
+        int delivered = 0;
+        for (PushConnection connection : userConnections) {
+            if (connection.send(eventType, payload)) {
+                delivered++;
+            } else {
+                unregister(connection);
+                connection.close();
+            }
+        }
+        return delivered;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.push.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (Set<PushConnection> userConnections : connections.values()) {
+            for (PushConnection connection : userConnections) {
+                if (connection instanceof SsePushConnection sse && !sse.heartbeat()) {
+                    unregister(connection);
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private AtomicInteger transportCounter(String transport) {
+        return connectionsByTransport.computeIfAbsent(transport, key ->
+                meterRegistry.gauge("notification.push.connections",
+                        Tags.of("transport", key), new AtomicInteger()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.notificationservice.push;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives pushes routed to this node's shards and writes them to local connections.
+ */
+@Component
+public class PushDeliveryListener {
+
+    private final PushConnectionRegistry connectionRegistry;
+
+    private final Counter deliveredCounter;
+    private final Counter missedCounter;
+    private final Timer deliveryLatency;
+
+    @Autowired
+    public PushDeliveryListener(PushConnectionRegistry connectionRegistry, MeterRegistry meterRegistry) {
+        this.connectionRegistry = connectionRegistry;
+        this.deliveredCounter = Counter.builder("notification.push.delivered")
+                .description("Push messages written to client connections")
+                .register(meterRegistry);
+        this.missedCounter = Counter.builder("notification.push.missed")
+                .description("Push messages for users with no connection on this node")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("notification.push.delivery.latency")
+                .description("Time from publishing a push to writing it to the client connection")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(queues = "#{pushNodeQueue.name}")
+    public void onPush(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String username = properties.getHeader(PushRouter.USERNAME_HEADER);
+        if (username == null) {
+            return;
+        }
+
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int delivered = connectionRegistry.deliver(username, properties.getType(), payload);
+
+        if (delivered == 0) {
+            // Another user in the same shard is connected here, this one is not
+            missedCounter.increment();
+            return;
+        }
+
+        deliveredCounter.increment(delivered);
+        Long publishedAt = properties.getHeader(PushRouter.PUBLISHED_AT_HEADER);
+        if (publishedAt != null) {
+            deliveryLatency.record(System.currentTimeMillis() - publishedAt, TimeUnit.MILLISECONDS);
+        }
+    }
+}
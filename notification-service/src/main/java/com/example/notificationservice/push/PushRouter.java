@@ -0,0 +1,118 @@
+package com.example.notificationservice.push;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Cross-node routing for push notifications. Usernames hash onto a fixed number of
+ * shards; each node's private queue is bound to the {@code notification.push}
+ * exchange only for shards in which it currently holds connections, so RabbitMQ
+ * acts as the sharded routing table and a push reaches only the nodes that can use it.
+ */
+@Component
+public class PushRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushRouter.class);
+
+    static final String USERNAME_HEADER = "x-push-user";
+    static final String PUBLISHED_AT_HEADER = "x-push-published-at";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final DirectExchange pushExchange;
+    private final Queue pushNodeQueue;
+    private final int shardCount;
+    private final AtomicIntegerArray shardConnections;
+    private final Object[] shardLocks;
+
+    @Autowired
+    public PushRouter(RabbitTemplate rabbitTemplate,
+                      AmqpAdmin amqpAdmin,
+                      DirectExchange pushExchange,
+                      Queue pushNodeQueue,
+                      @Value("${notification.push.shards:256}") int shardCount) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.pushExchange = pushExchange;
+        this.pushNodeQueue = pushNodeQueue;
+        this.shardCount = shardCount;
+        this.shardConnections = new AtomicIntegerArray(shardCount);
+        this.shardLocks = new Object[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shardLocks[i] = new Object();
+        }
+    }
+
+    public int shardOf(String username) {
+        return Math.floorMod(username.hashCode(), shardCount);
+    }
+
+    public void publish(String username, String eventType, String payload) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setType(eventType);
+        properties.setHeader(USERNAME_HEADER, username);
+        properties.setHeader(PUBLISHED_AT_HEADER, System.currentTimeMillis());
+
+        rabbitTemplate.send(pushExchange.getName(), routingKey(shardOf(username)),
+                new Message(payload.getBytes(StandardCharsets.UTF_8), properties));
+    }
+
+    public void connectionOpened(String username) {
+        int shard = shardOf(username);
+        synchronized (shardLocks[shard]) {
+            if (shardConnections.incrementAndGet(shard) == 1) {
+                amqpAdmin.declareBinding(binding(shard));
+                logger.debug("Bound push shard {} to {}", shard, pushNodeQueue.getName());
+            }
+        }
+    }
+
+    public void connectionClosed(String username) {
+        int shard = shardOf(username);
+        synchronized (shardLocks[shard]) {
+            if (shardConnections.decrementAndGet(shard) == 0) {
+                amqpAdmin.removeBinding(binding(shard));
+                logger.debug("Unbound push shard {} from {}", shard, pushNodeQueue.getName());
+            }
+        }
+    }
+
+    /**
+     * Dynamic bindings disappear with the auto-delete node queue when the broker
+     * connection drops; re-declaring the active ones is idempotent and cheap.
+     */
+    @Scheduled(fixedDelayString = "${notification.push.rebind-interval-ms:30000}")
+    public void reconcileBindings() {
+        for (int shard = 0; shard < shardCount; shard++) {
+            synchronized (shardLocks[shard]) {
+                if (shardConnections.get(shard) > 0) {
+                    amqpAdmin.declareBinding(binding(shard));
+                }
+            }
+        }
+    }
+
+    private Binding binding(int shard) {
+        return new Binding(pushNodeQueue.getName(), Binding.DestinationType.QUEUE,
+                pushExchange.getName(), routingKey(shard), null);
+    }
+
+    private static String routingKey(int shard) {
+        return "shard." + shard;
+    }
+}
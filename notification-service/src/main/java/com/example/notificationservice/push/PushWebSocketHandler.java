@@ -0,0 +1,53 @@
+package com.example.notificationservice.push;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PushWebSocketHandler extends TextWebSocketHandler {
+
+    public static final String USERNAME_ATTRIBUTE = "push.username";
+
+    private final PushConnectionRegistry connectionRegistry;
+    private final Map<String, WebSocketPushConnection> sessions = new ConcurrentHashMap<>();
+
+    @Value("${notification.push.websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${notification.push.websocket.send-buffer-limit:16384}")
+    private int sendBufferLimit;
+
+    @Autowired
+    public PushWebSocketHandler(PushConnectionRegistry connectionRegistry) {
+        this.connectionRegistry = connectionRegistry;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        String username = (String) session.getAttributes().get(USERNAME_ATTRIBUTE);
+        WebSocketPushConnection connection =
+                new WebSocketPushConnection(username, session, sendTimeLimitMs, sendBufferLimit);
+        sessions.put(session.getId(), connection);
+        connectionRegistry.register(connection);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketPushConnection connection = sessions.remove(session.getId());
+        if (connection != null) {
+            connectionRegistry.unregister(connection);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        afterConnectionClosed(session, CloseStatus.SERVER_ERROR);
+    }
+}
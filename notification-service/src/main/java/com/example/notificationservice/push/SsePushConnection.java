@@ -0,0 +1,143 @@
+package com.example.notificationservice.push;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSE counterpart of {@link WebSocketPushConnection}'s bounded decorator: events are
+ * queued per connection and written by the shared SSE writer pool, so the push listener
+ * and the heartbeat never block on a slow client. The connection reports itself dead
+ * once its queue exceeds the buffer limit or a single write takes longer than the send
+ * time limit.
+ */
+public class SsePushConnection implements PushConnection {
+
+    private record Pending(SseEmitter.SseEventBuilder event, int size) {
+    }
+
+    private final String username;
+    private final SseEmitter emitter;
+    private final TaskExecutor writer;
+    private final long sendTimeLimitNanos;
+    private final int bufferSizeLimit;
+
+    // Guarded by this
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private int bufferSize;
+    private boolean draining;
+
+    private volatile long sendStartedAt;
+    private volatile boolean closed;
+
+    public SsePushConnection(String username, SseEmitter emitter, TaskExecutor writer,
+                             int sendTimeLimitMs, int bufferSizeLimit) {
+        this.username = username;
+        this.emitter = emitter;
+        this.writer = writer;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+        this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getTransport() {
+        return "sse";
+    }
+
+    @Override
+    public boolean send(String eventType, String payload) {
+        return enqueue(SseEmitter.event().name(eventType).data(payload, MediaType.APPLICATION_JSON), payload.length());
+    }
+
+    public boolean heartbeat() {
+        return enqueue(SseEmitter.event().comment("hb"), 2);
+    }
+
+    private boolean enqueue(SseEmitter.SseEventBuilder event, int size) {
+        if (closed || sendTimedOut()) {
+            return false;
+        }
+        synchronized (this) {
+            if (!queue.isEmpty() && bufferSize + size > bufferSizeLimit) {
+                return false;
+            }
+            queue.addLast(new Pending(event, size));
+            bufferSize += size;
+            if (draining) {
+                return true;
+            }
+            draining = true;
+        }
+
+        try {
+            writer.execute(this::drain);
+            return true;
+        } catch (TaskRejectedException e) {
+            // Every writer is busy with other clients; drop this one rather than wait
+            discardQueue();
+            return false;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                bufferSize -= next.size();
+            }
+
+            sendStartedAt = System.nanoTime();
+            try {
+                emitter.send(next.event());
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                discardQueue();
+                return;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+    }
+
+    private boolean sendTimedOut() {
+        long started = sendStartedAt;
+        return started != 0 && System.nanoTime() - started > sendTimeLimitNanos;
+    }
+
+    private synchronized void discardQueue() {
+        queue.clear();
+        bufferSize = 0;
+        draining = false;
+    }
+
+    /**
+     * Completes the emitter on the writer pool: it shares the emitter's write lock with a
+     * send that may be stuck on this client. If the pool is saturated the emitter is left
+     * to its own timeout.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        discardQueue();
+        try {
+            writer.execute(emitter::complete);
+        } catch (TaskRejectedException ignored) {
+            // already unregistered; nothing more is written to it
+        }
+    }
+}
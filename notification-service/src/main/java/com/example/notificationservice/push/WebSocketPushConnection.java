@@ -0,0 +1,60 @@
+package com.example.notificationservice.push;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+
+public class WebSocketPushConnection implements PushConnection {
+
+    private final String username;
+    private final WebSocketSession session;
+
+    /**
+     * Slow clients get a small bounded send buffer; once it overflows or a send
+     * takes longer than the limit the session is closed instead of queueing more.
+     */
+    public WebSocketPushConnection(String username, WebSocketSession session,
+                                   int sendTimeLimitMs, int bufferSizeLimit) {
+        this.username = username;
+        this.session = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit);
+    }
+
+    public String getId() {
+        return session.getId();
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getTransport() {
+        return "websocket";
+    }
+
+    @Override
+    public boolean send(String eventType, String payload) {
+        if (!session.isOpen()) {
+            return false;
+        }
+        try {
+            session.sendMessage(new TextMessage(payload));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            session.close(CloseStatus.GOING_AWAY);
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+}
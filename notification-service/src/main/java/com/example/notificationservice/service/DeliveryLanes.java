@@ -0,0 +1,95 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.config.LaneProperties;
+import com.example.notificationservice.model.DeliveryLane;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the per-lane SMTP pool, dispatcher and scheduler, and reports queue depth per
+ * lane both in the broker and in the in-memory scheduler.
+ */
+@Component
+public class DeliveryLanes {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryLanes.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final Map<DeliveryLane, SmtpSessionPool> pools = new EnumMap<>(DeliveryLane.class);
+    private final Map<DeliveryLane, LaneScheduler> schedulers = new EnumMap<>(DeliveryLane.class);
+    private final Map<DeliveryLane, AtomicLong> brokerDepth = new EnumMap<>(DeliveryLane.class);
+
+    @Autowired
+    public DeliveryLanes(Session smtpSession,
+                         MailProperties mailProperties,
+                         LaneProperties laneProperties,
+                         AmqpAdmin amqpAdmin,
+                         MeterRegistry meterRegistry,
+                         @Value("${notification.mail.from:no-reply@dopost.local}") String from,
+                         @Value("${notification.mail.borrow-timeout-ms:5000}") long borrowTimeoutMs,
+                         @Value("${notification.mail.validate-after-idle-ms:30000}") long validateAfterIdleMs) {
+        this.amqpAdmin = amqpAdmin;
+
+        int port = mailProperties.getPort() != null ? mailProperties.getPort() : -1;
+        for (DeliveryLane lane : DeliveryLane.values()) {
+            LaneProperties.Lane settings = laneProperties.lane(lane);
+
+            SmtpSessionPool pool = new SmtpSessionPool(smtpSession, mailProperties.getHost(), port,
+                    mailProperties.getUsername(), mailProperties.getPassword(),
+                    settings.getSmtpConnections(), validateAfterIdleMs);
+            EmailDispatcher dispatcher = new EmailDispatcher(lane.key(), pool, from, borrowTimeoutMs, meterRegistry);
+            LaneScheduler scheduler = new LaneScheduler(lane, dispatcher, settings.getSmtpConnections(),
+                    settings.getTenantWeights(), meterRegistry);
+
+            pools.put(lane, pool);
+            schedulers.put(lane, scheduler);
+
+            Tags tags = Tags.of("lane", lane.key());
+            meterRegistry.gauge("notification.lane.depth", tags.and("stage", "scheduler"),
+                    scheduler, LaneScheduler::depth);
+            brokerDepth.put(lane, meterRegistry.gauge("notification.lane.depth",
+                    tags.and("stage", "broker"), new AtomicLong()));
+
+            logger.info("Delivery lane {} started with {} SMTP connections", lane.key(), settings.getSmtpConnections());
+        }
+    }
+
+    public LaneScheduler scheduler(DeliveryLane lane) {
+        return schedulers.get(lane);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.lanes-depth-poll-ms:10000}")
+    public void pollBrokerDepth() {
+        for (DeliveryLane lane : DeliveryLane.values()) {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(lane.queueName());
+                if (info != null) {
+                    brokerDepth.get(lane).set(info.getMessageCount());
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Could not read depth of {}: {}", lane.queueName(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        schedulers.values().forEach(LaneScheduler::shutdown);
+        pools.values().forEach(SmtpSessionPool::destroy);
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.DeliveryLane;
+import com.example.notificationservice.model.DigestItem;
+import com.example.notificationservice.model.EmailMessage;
+import com.example.notificationservice.model.NotificationEvent;
+import com.example.notificationservice.model.PendingDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Windowed coalescing of bursty events (likes, comments, follows) into one digest
+ * email per recipient and event type. A digest is flushed when its window closes,
+ * when it reaches {@code max-count} events, or when it is the oldest group and the
+ * {@code max-keys} bound is hit. State is checkpointed through {@link DigestCheckpointStore}.
+ */
+@Component
+public class DigestAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigestAggregator.class);
+
+    private final DigestCheckpointStore checkpointStore;
+    private final EmailComposer emailComposer;
+    private final DeliveryLanes deliveryLanes;
+    private final MeterRegistry meterRegistry;
+
+    // Guards pending, retries and inFlight; insertion order == window start order
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, PendingDigest> pending = new LinkedHashMap<>();
+    // Failed sends, already past their window; drained first on the next tick
+    private final ArrayDeque<PendingDigest> retries = new ArrayDeque<>();
+    private final Set<PendingDigest> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Ids of the most recently added items, so a redelivered message is not journaled again
+    private final LinkedHashMap<String, Boolean> recentMessageIds = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > recentMessageIdLimit;
+        }
+    };
+    private boolean dirty;
+    private long lastSnapshotAt = System.currentTimeMillis();
+
+    @Value("${notification.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.digest.event-types:PostLiked,PostCommented,UserFollowed}")
+    private Set<String> eventTypes;
+
+    @Value("${notification.digest.window:PT5M}")
+    private Duration window;
+
+    @Value("${notification.digest.max-count:50}")
+    private int maxCount;
+
+    @Value("${notification.digest.max-keys:50000}")
+    private int maxKeys;
+
+    @Value("${notification.digest.max-samples:5}")
+    private int maxSamples;
+
+    @Value("${notification.digest.recent-message-ids:100000}")
+    private int recentMessageIdLimit;
+
+    @Value("${notification.digest.checkpoint-interval-ms:5000}")
+    private long checkpointIntervalMs;
+
+    @Autowired
+    public DigestAggregator(DigestCheckpointStore checkpointStore,
+                            EmailComposer emailComposer,
+                            DeliveryLanes deliveryLanes,
+                            MeterRegistry meterRegistry) {
+        this.checkpointStore = checkpointStore;
+        this.emailComposer = emailComposer;
+        this.deliveryLanes = deliveryLanes;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("notification.digest.pending", this, DigestAggregator::pendingCount);
+        meterRegistry.gauge("notification.digest.retrying", this, DigestAggregator::retryingCount);
+    }
+
+    /**
+     * Digests that restore finds already due are queued with the retries rather than
+     * sent here, so startup never waits on SMTP; the first tick sends them.
+     */
+    @PostConstruct
+    public void restore() throws IOException {
+        List<PendingDigest> ready = new ArrayList<>();
+        synchronized (lock) {
+            // Snapshots are ordered by window start; a key can appear twice when a failed
+            // send was waiting for retry next to a newer window for the same recipient
+            for (PendingDigest digest : checkpointStore.loadSnapshot()) {
+                pending.merge(digest.key(), digest, (restored, newer) -> {
+                    restored.merge(newer, maxSamples);
+                    return restored;
+                });
+            }
+            List<DigestItem> journal = checkpointStore.loadJournal();
+            for (DigestItem item : journal) {
+                merge(item, ready);
+            }
+            retries.addAll(ready);
+            dirty = !journal.isEmpty();
+            logger.info("Restored {} pending digests ({} journaled events, {} due)",
+                    pending.size(), journal.size(), ready.size());
+        }
+    }
+
+    public boolean accepts(NotificationEvent event) {
+        return enabled && eventTypes.contains(event.getEventType()) && event.dataValue("email") != null;
+    }
+
+    /**
+     * @param messageId stable id of the source message, the same on every redelivery
+     */
+    public DigestItem toItem(NotificationEvent event, String messageId) {
+        String recipientName = event.dataValue("fullName") != null
+                ? event.dataValue("fullName") : event.dataValue("username");
+        String summary = event.dataValue("summary") != null
+                ? event.dataValue("summary") : event.dataValue("actor");
+        return new DigestItem(messageId, event.dataValue("email"), recipientName, event.getEventType(),
+                summary, System.currentTimeMillis());
+    }
+
+    /**
+     * Journals and aggregates the items. Digests that must go out immediately
+     * (count threshold or eviction) are sent before returning, so the caller can
+     * acknowledge the source messages once this method completes normally. Items whose
+     * message id was already added recently are skipped, so a message requeued after
+     * this method failed part way is not counted twice.
+     */
+    public void add(List<DigestItem> items) throws IOException {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<PendingDigest> ready = new ArrayList<>();
+        int added;
+        synchronized (lock) {
+            List<DigestItem> fresh = items.stream()
+                    .filter(item -> item.getMessageId() == null || !recentMessageIds.containsKey(item.getMessageId()))
+                    .toList();
+            added = fresh.size();
+            if (fresh.isEmpty()) {
+                return;
+            }
+            checkpointStore.append(fresh);
+            for (DigestItem item : fresh) {
+                merge(item, ready);
+            }
+            inFlight.addAll(ready);
+            dirty = true;
+        }
+
+        meterRegistry.counter("notification.digest.events").increment(added);
+        if (added < items.size()) {
+            meterRegistry.counter("notification.digest.duplicates").increment(items.size() - added);
+        }
+        deliver(ready);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digest.tick-ms:1000}")
+    public void flushExpired() {
+        long cutoff = System.currentTimeMillis() - window.toMillis();
+        List<PendingDigest> due = new ArrayList<>();
+
+        int retried;
+        synchronized (lock) {
+            retried = retries.size();
+            due.addAll(retries);
+            retries.clear();
+
+            Iterator<PendingDigest> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                PendingDigest digest = iterator.next();
+                if (digest.getFirstAt() > cutoff) {
+                    break;
+                }
+                iterator.remove();
+                due.add(digest);
+            }
+            inFlight.addAll(due);
+        }
+
+        countFlushed("retry", retried);
+        countFlushed("window", due.size() - retried);
+        deliver(due);
+        checkpointIfDue();
+    }
+
+    private void merge(DigestItem item, List<PendingDigest> ready) {
+        if (item.getMessageId() != null) {
+            recentMessageIds.put(item.getMessageId(), Boolean.TRUE);
+        }
+
+        PendingDigest digest = pending.get(item.key());
+        if (digest == null) {
+            if (pending.size() + retries.size() >= maxKeys) {
+                ready.add(evictOldest());
+                countFlushed("evicted", 1);
+            }
+            digest = new PendingDigest(item);
+            pending.put(item.key(), digest);
+        }
+
+        digest.add(item, maxSamples);
+
+        if (digest.getCount() >= maxCount) {
+            pending.remove(item.key());
+            ready.add(digest);
+            countFlushed("count", 1);
+        }
+    }
+
+    /**
+     * Digests waiting for retry are older than anything still pending, so they go first.
+     */
+    private PendingDigest evictOldest() {
+        if (!retries.isEmpty()) {
+            return retries.pollFirst();
+        }
+        Iterator<PendingDigest> oldest = pending.values().iterator();
+        PendingDigest digest = oldest.next();
+        oldest.remove();
+        return digest;
+    }
+
+    private void deliver(List<PendingDigest> digests) {
+        if (digests.isEmpty()) {
+            return;
+        }
+
+        // Digests go through the social lane's scheduler like any other social email, so
+        // they share its per-tenant fairness, worker bound and queue metrics
+        LaneScheduler scheduler = deliveryLanes.scheduler(DeliveryLane.SOCIAL);
+        long flushedAt = System.currentTimeMillis();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(digests.size());
+        for (PendingDigest digest : digests) {
+            EmailMessage email = emailComposer.composeDigest(digest);
+            results.add(scheduler.submit(email.getTo(), email, flushedAt));
+        }
+
+        List<Boolean> sent = results.stream().map(CompletableFuture::join).toList();
+
+        int failed = 0;
+        synchronized (lock) {
+            for (int i = 0; i < digests.size(); i++) {
+                PendingDigest digest = digests.get(i);
+                inFlight.remove(digest);
+                if (!sent.get(i)) {
+                    failed++;
+                    // Fold in anything that arrived for the same key meanwhile and retry
+                    // it on the next tick, ahead of the pending windows
+                    PendingDigest current = pending.remove(digest.key());
+                    if (current != null) {
+                        digest.merge(current, maxSamples);
+                    }
+                    retries.addLast(digest);
+                }
+            }
+            dirty = true;
+        }
+
+        logger.debug("Delivered {} digests ({} failed)", digests.size(), failed);
+    }
+
+    private void checkpointIfDue() {
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            if (!dirty || now - lastSnapshotAt < checkpointIntervalMs) {
+                return;
+            }
+
+            List<PendingDigest> state = new ArrayList<>(pending.size() + retries.size() + inFlight.size());
+            state.addAll(retries);
+            state.addAll(inFlight);
+            state.addAll(pending.values());
+            // Restore rebuilds pending in this order, so keep it the window start order
+            state.sort(Comparator.comparingLong(PendingDigest::getFirstAt));
+            try {
+                checkpointStore.snapshot(state);
+                dirty = false;
+                lastSnapshotAt = now;
+            } catch (IOException e) {
+                logger.error("Failed to checkpoint digest state: {}", e.getMessage());
+            }
+        }
+    }
+
+    private double pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private double retryingCount() {
+        synchronized (lock) {
+            return retries.size();
+        }
+    }
+
+    private void countFlushed(String reason, int count) {
+        if (count > 0) {
+            meterRegistry.counter("notification.digest.flushed", "reason", reason).increment(count);
+        }
+    }
+}
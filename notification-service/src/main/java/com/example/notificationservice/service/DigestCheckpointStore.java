@@ -0,0 +1,128 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.DigestItem;
+import com.example.notificationservice.model.PendingDigest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persists digest state as a snapshot plus an append-only journal of items added
+ * since that snapshot. Items are journaled (and fsynced) before their messages are
+ * acknowledged; a snapshot replaces the journal. Recovery is snapshot + journal replay,
+ * so a crash between the two steps can only over-count a digest, never drop events.
+ */
+@Component
+public class DigestCheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DigestCheckpointStore.class);
+
+    private static final String SNAPSHOT_FILE = "digest-snapshot.json";
+    private static final String JOURNAL_FILE = "digest-journal.jsonl";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${notification.digest.checkpoint-dir:./data/digest}")
+    private String checkpointDir;
+
+    private Path snapshotPath;
+    private Path journalPath;
+    private FileChannel journal;
+
+    @Autowired
+    public DigestCheckpointStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Paths.get(checkpointDir);
+        Files.createDirectories(dir);
+        snapshotPath = dir.resolve(SNAPSHOT_FILE);
+        journalPath = dir.resolve(JOURNAL_FILE);
+        journal = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        logger.info("Digest checkpoints stored in {}", dir.toAbsolutePath());
+    }
+
+    public synchronized void append(List<DigestItem> items) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(items.size() * 128);
+        for (DigestItem item : items) {
+            buffer.write(objectMapper.writeValueAsBytes(item));
+            buffer.write('\n');
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            journal.write(bytes);
+        }
+        journal.force(false);
+    }
+
+    public synchronized void snapshot(Collection<PendingDigest> digests) throws IOException {
+        Path tmp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(objectMapper.writeValueAsBytes(digests)));
+            channel.force(true);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        journal.truncate(0);
+        journal.force(true);
+    }
+
+    public List<PendingDigest> loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return List.of();
+        }
+        return objectMapper.readValue(snapshotPath.toFile(), new TypeReference<List<PendingDigest>>() {});
+    }
+
+    public List<DigestItem> loadJournal() throws IOException {
+        List<DigestItem> items = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    items.add(objectMapper.readValue(line, DigestItem.class));
+                } catch (IOException e) {
+                    // A torn write at the tail of the journal; everything before it is intact
+                    logger.warn("Skipping unreadable digest journal entry: {}", e.getMessage());
+                }
+            }
+        }
+        return items;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.EmailMessage;
+import com.example.notificationservice.model.NotificationEvent;
+import com.example.notificationservice.model.PendingDigest;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class EmailComposer {
+
+    public Optional<EmailMessage> compose(NotificationEvent event) {
+        String email = event.dataValue("email");
+        if (email == null || email.isBlank() || event.getEventType() == null) {
+            return Optional.empty();
+        }
+
+        String name = displayName(event);
+
+        return switch (event.getEventType()) {
+            case "UserCreated" -> Optional.of(new EmailMessage(email,
+                    "Welcome to DoPost",
+                    "Hi " + name + ",\n\nYour DoPost account is ready.\n"));
+            case "UserDeleted" -> Optional.of(new EmailMessage(email,
+                    "Your DoPost account was deleted",
+                    "Hi " + name + ",\n\nYour DoPost account and profile have been removed.\n"));
+            default -> Optional.empty();
+        };
+    }
+
+    public EmailMessage composeDigest(PendingDigest digest) {
+        String label = digestLabel(digest.getEventType());
+        String name = digest.getRecipientName() != null ? digest.getRecipientName() : digest.getRecipient();
+
+        StringBuilder body = new StringBuilder()
+                .append("Hi ").append(name).append(",\n\n")
+                .append("You have ").append(digest.getCount()).append(' ').append(label).append(".\n");
+        for (String sample : digest.getSamples()) {
+            body.append("  - ").append(sample).append('\n');
+        }
+        int more = digest.getCount() - digest.getSamples().size();
+        if (more > 0) {
+            body.append("  ...and ").append(more).append(" more\n");
+        }
+
+        return new EmailMessage(digest.getRecipient(),
+                "You have " + digest.getCount() + " " + label, body.toString());
+    }
+
+    private String digestLabel(String eventType) {
+        return switch (eventType) {
+            case "PostLiked" -> "new likes";
+            case "PostCommented" -> "new comments";
+            case "UserFollowed" -> "new followers";
+            default -> "new notifications";
+        };
+    }
+
+    private String displayName(NotificationEvent event) {
+        String fullName = event.dataValue("fullName");
+        return fullName != null && !fullName.isBlank() ? fullName : event.dataValue("username");
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.EmailMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends batches of emails over pooled, persistent SMTP connections. One dispatcher
+ * (and one pool) exists per delivery lane.
+ */
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final SmtpSessionPool pool;
+    private final String from;
+    private final long borrowTimeoutMs;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public EmailDispatcher(String lane, SmtpSessionPool pool, String from, long borrowTimeoutMs,
+                           MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.from = from;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.sentCounter = Counter.builder("notification.emails.sent")
+                .description("Emails accepted by the SMTP server")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("notification.emails.failed")
+                .description("Emails that could not be sent and were scheduled for retry")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("notification.emails.batch")
+                .description("Time to send one batch of emails over a pooled connection")
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends the batch and returns the emails that failed; the caller decides whether
+     * to retry or dead-letter them.
+     */
+    public List<EmailMessage> sendBatch(List<EmailMessage> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        return batchTimer.record(() -> doSendBatch(emails));
+    }
+
+    private List<EmailMessage> doSendBatch(List<EmailMessage> emails) {
+        List<EmailMessage> failed = new ArrayList<>();
+        boolean reconnected = false;
+        int index = 0;
+
+        while (index < emails.size()) {
+            SmtpSessionPool.PooledTransport pooled;
+            try {
+                pooled = pool.borrow(borrowTimeoutMs);
+            } catch (MessagingException e) {
+                logger.error("Could not obtain SMTP connection: {}", e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            boolean broken = false;
+            try {
+                for (; index < emails.size() && !broken; index++) {
+                    EmailMessage email = emails.get(index);
+                    try {
+                        MimeMessage message = toMimeMessage(email);
+                        pooled.getTransport().sendMessage(message, message.getAllRecipients());
+                        sentCounter.increment();
+                    } catch (SendFailedException e) {
+                        // Rejected recipient; the connection itself is still usable
+                        logger.warn("SMTP rejected email to {}: {}", email.getTo(), e.getMessage());
+                        failed.add(email);
+                    } catch (MessagingException e) {
+                        logger.warn("SMTP connection failed while sending to {}: {}", email.getTo(), e.getMessage());
+                        failed.add(email);
+                        broken = true;
+                    }
+                }
+            } finally {
+                pool.release(pooled, broken);
+            }
+
+            // Reconnect once per batch; if the server keeps failing, hand the rest back for retry
+            if (broken && reconnected) {
+                break;
+            }
+            reconnected |= broken;
+        }
+
+        failed.addAll(emails.subList(index, emails.size()));
+        failedCounter.increment(failed.size());
+        return failed;
+    }
+
+    private MimeMessage toMimeMessage(EmailMessage email) throws MessagingException {
+        MimeMessage message = new MimeMessage(pool.getSession());
+        message.setFrom(new InternetAddress(from));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getTo()));
+        message.setSubject(email.getSubject(), StandardCharsets.UTF_8.name());
+        message.setText(email.getBody(), StandardCharsets.UTF_8.name());
+        message.saveChanges();
+        return message;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.DeliveryLane;
+import com.example.notificationservice.model.EmailMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Sender for one lane. Emails are queued per tenant and a fixed set of sender threads
+ * (the lane's SMTP budget) drains them with deficit round-robin, so a tenant with a
+ * large backlog gets its weighted share instead of blocking everyone queued behind it.
+ */
+public class LaneScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaneScheduler.class);
+
+    private final DeliveryLane lane;
+    private final EmailDispatcher dispatcher;
+    private final Map<String, Integer> tenantWeights;
+    private final Timer timeInQueue;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<String, TenantQueue> queues = new HashMap<>();
+    private final ArrayDeque<TenantQueue> active = new ArrayDeque<>();
+    private int depth;
+
+    private final List<Thread> workers;
+    private volatile boolean running = true;
+
+    public LaneScheduler(DeliveryLane lane, EmailDispatcher dispatcher, int workerCount,
+                         Map<String, Integer> tenantWeights, MeterRegistry meterRegistry) {
+        this.lane = lane;
+        this.dispatcher = dispatcher;
+        this.tenantWeights = tenantWeights;
+        this.timeInQueue = Timer.builder("notification.lane.time-in-queue")
+                .description("Time from event creation to the start of its SMTP send")
+                .tags(Tags.of("lane", lane.key()))
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.workers = IntStream.range(0, workerCount)
+                .mapToObj(i -> Thread.ofPlatform()
+                        .name("lane-" + lane.key() + "-" + i)
+                        .daemon(true)
+                        .start(this::runWorker))
+                .toList();
+    }
+
+    public DeliveryLane getLane() {
+        return lane;
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return depth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param enqueuedAt epoch millis the event was created, used for time-in-queue
+     * @return completes with true when sent, false when the send failed or the lane is
+     *         already shut down
+     */
+    public CompletableFuture<Boolean> submit(String tenant, EmailMessage email, long enqueuedAt) {
+        Task task = new Task(email, enqueuedAt, new CompletableFuture<>());
+        lock.lock();
+        try {
+            // No worker would ever drain it; fail it back like the tasks dropped at shutdown
+            if (!running) {
+                task.result.complete(false);
+                return task.result;
+            }
+            TenantQueue queue = queues.computeIfAbsent(tenant, TenantQueue::new);
+            if (queue.tasks.isEmpty()) {
+                active.addLast(queue);
+            }
+            queue.tasks.addLast(task);
+            depth++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return task.result;
+    }
+
+    private Task next() throws InterruptedException {
+        lock.lock();
+        try {
+            while (active.isEmpty()) {
+                notEmpty.await();
+            }
+
+            TenantQueue queue = active.peekFirst();
+            if (queue.credits == 0) {
+                queue.credits = tenantWeights.getOrDefault(queue.tenant, 1);
+            }
+
+            Task task = queue.tasks.pollFirst();
+            queue.credits--;
+            depth--;
+
+            if (queue.tasks.isEmpty()) {
+                active.pollFirst();
+                queue.credits = 0;
+                queues.remove(queue.tenant);
+            } else if (queue.credits == 0) {
+                active.addLast(active.pollFirst());
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            Task task;
+            try {
+                task = next();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            timeInQueue.record(System.currentTimeMillis() - task.enqueuedAt, TimeUnit.MILLISECONDS);
+            try {
+                boolean sent = dispatcher.sendBatch(List.of(task.email)).isEmpty();
+                task.result.complete(sent);
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error sending {} email: {}", lane.key(), e.getMessage());
+                task.result.complete(false);
+            }
+        }
+    }
+
+    public void shutdown() {
+        // Flipped under the lock so no submit can slip in after the queues are failed below
+        lock.lock();
+        try {
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+
+        // Unsent emails fail back to the consumer, which routes them to the retry queue
+        lock.lock();
+        try {
+            for (TenantQueue queue : active) {
+                queue.tasks.forEach(task -> task.result.complete(false));
+            }
+            active.clear();
+            queues.clear();
+            depth = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Task(EmailMessage email, long enqueuedAt, CompletableFuture<Boolean> result) {
+    }
+
+    private static final class TenantQueue {
+        private final String tenant;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private int credits;
+
+        private TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
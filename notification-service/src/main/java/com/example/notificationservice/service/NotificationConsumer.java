@@ -0,0 +1,258 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.config.RabbitConfig;
+import com.example.notificationservice.model.DeliveryLane;
+import com.example.notificationservice.model.DigestItem;
+import com.example.notificationservice.model.EmailMessage;
+import com.example.notificationservice.model.NotificationEvent;
+import com.example.notificationservice.push.PushRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch consumer for the delivery lanes. Each listener call handles up to
+ * {@code notification.consumer.batch-size} messages from one lane, hands the resulting
+ * emails to that lane's scheduler, re-routes failures to the lane's retry or
+ * dead-letter queue, and then settles each message on its own outcome.
+ */
+@Component
+public class NotificationConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationConsumer.class);
+
+    static final String RETRY_COUNT_HEADER = "x-retry-count";
+
+    private final ObjectMapper objectMapper;
+    private final EmailComposer emailComposer;
+    private final DeliveryLanes deliveryLanes;
+    private final DigestAggregator digestAggregator;
+    private final PushRouter pushRouter;
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.consumer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.push.enabled:true}")
+    private boolean pushEnabled;
+
+    @Autowired
+    public NotificationConsumer(ObjectMapper objectMapper,
+                                EmailComposer emailComposer,
+                                DeliveryLanes deliveryLanes,
+                                DigestAggregator digestAggregator,
+                                PushRouter pushRouter,
+                                RabbitTemplate rabbitTemplate,
+                                MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.emailComposer = emailComposer;
+        this.deliveryLanes = deliveryLanes;
+        this.digestAggregator = digestAggregator;
+        this.pushRouter = pushRouter;
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @RabbitListener(queues = "notification.transactional", containerFactory = "transactionalListenerContainerFactory")
+    public void onTransactional(List<Message> messages, Channel channel) throws IOException {
+        handle(DeliveryLane.TRANSACTIONAL, messages, channel);
+    }
+
+    @RabbitListener(queues = "notification.social", containerFactory = "socialListenerContainerFactory")
+    public void onSocial(List<Message> messages, Channel channel) throws IOException {
+        handle(DeliveryLane.SOCIAL, messages, channel);
+    }
+
+    @RabbitListener(queues = "notification.bulk", containerFactory = "bulkListenerContainerFactory")
+    public void onBulk(List<Message> messages, Channel channel) throws IOException {
+        handle(DeliveryLane.BULK, messages, channel);
+    }
+
+    /**
+     * Settles each message on its own outcome. A message is acknowledged once its email
+     * was sent, its digest item journaled, or it was re-routed to the retry or
+     * dead-letter queue; only a message whose hand-off itself threw is requeued, so a
+     * failure never redelivers emails that already went out. A batch without failures
+     * is still settled with a single multiple-ack.
+     */
+    private void handle(DeliveryLane lane, List<Message> messages, Channel channel) throws IOException {
+        Set<Message> requeue = handleBatch(lane, messages);
+        if (requeue.isEmpty()) {
+            channel.basicAck(messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag(), true);
+            return;
+        }
+
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            if (requeue.contains(message)) {
+                channel.basicNack(deliveryTag, false, true);
+            } else {
+                channel.basicAck(deliveryTag, false);
+            }
+        }
+        meterRegistry.counter("notification.consumer.requeued", "lane", lane.key()).increment(requeue.size());
+    }
+
+    /**
+     * @return the messages that could not be handed off and must be requeued
+     */
+    private Set<Message> handleBatch(DeliveryLane lane, List<Message> messages) {
+        LaneScheduler scheduler = deliveryLanes.scheduler(lane);
+        Set<Message> requeue = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(messages.size());
+        List<Message> sources = new ArrayList<>(messages.size());
+        List<DigestItem> digestItems = new ArrayList<>();
+        List<Message> digestSources = new ArrayList<>();
+
+        for (Message message : messages) {
+            try {
+                Optional<NotificationEvent> event = parse(message);
+                if (event.isEmpty()) {
+                    deadLetter(lane, message, "unparseable");
+                    continue;
+                }
+
+                // Only on first delivery: a retry or a requeued message would push the same event again
+                if (isFirstDelivery(message)) {
+                    push(event.get(), message);
+                }
+
+                // Bursty social events are coalesced into digests instead of one email each
+                if (digestAggregator.accepts(event.get())) {
+                    digestItems.add(digestAggregator.toItem(event.get(), messageKey(event.get(), message)));
+                    digestSources.add(message);
+                    continue;
+                }
+
+                Optional<EmailMessage> email = emailComposer.compose(event.get());
+                if (email.isPresent()) {
+                    results.add(scheduler.submit(tenantOf(event.get(), email.get()), email.get(), enqueuedAt(message)));
+                    sources.add(message);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to hand off {} message {}, requeueing: {}",
+                        lane.key(), message.getMessageProperties().getMessageId(), e.getMessage(), e);
+                requeue.add(message);
+            }
+        }
+
+        // Journaled before the ack, so coalesced events survive a restart
+        try {
+            digestAggregator.add(digestItems);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to journal {} digest items, requeueing: {}", digestItems.size(), e.getMessage(), e);
+            requeue.addAll(digestSources);
+        }
+
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            Message source = sources.get(i);
+            try {
+                if (!results.get(i).join()) {
+                    failed++;
+                    retryOrDeadLetter(lane, source);
+                }
+            } catch (RuntimeException e) {
+                // Not sent, or not re-routed after a failed send: redelivery cannot duplicate it
+                logger.error("Failed to settle {} message {}, requeueing: {}",
+                        lane.key(), source.getMessageProperties().getMessageId(), e.getMessage(), e);
+                requeue.add(source);
+            }
+        }
+
+        logger.debug("Processed {} batch of {} messages ({} emails, {} failed, {} coalesced, {} requeued)",
+                lane.key(), messages.size(), results.size(), failed, digestItems.size(), requeue.size());
+        return requeue;
+    }
+
+    private String tenantOf(NotificationEvent event, EmailMessage email) {
+        String tenant = event.dataValue("tenantId");
+        return tenant != null ? tenant : email.getTo();
+    }
+
+    private long enqueuedAt(Message message) {
+        Date timestamp = message.getMessageProperties().getTimestamp();
+        return timestamp != null ? timestamp.getTime() : System.currentTimeMillis();
+    }
+
+    private Optional<NotificationEvent> parse(Message message) {
+        try {
+            return Optional.of(objectMapper.readValue(message.getBody(), NotificationEvent.class));
+        } catch (IOException e) {
+            logger.warn("Could not parse notification event {}: {}",
+                    message.getMessageProperties().getMessageId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stable across redeliveries. Publishers that set no message id are keyed by a hash
+     * of the body; ids are scoped by source service since each numbers its own outbox.
+     */
+    private String messageKey(NotificationEvent event, Message message) {
+        String messageId = message.getMessageProperties().getMessageId();
+        String id = messageId != null ? messageId : DigestUtils.md5DigestAsHex(message.getBody());
+        return event.getSourceService() + ":" + id;
+    }
+
+    private boolean isFirstDelivery(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        return properties.getHeader(RETRY_COUNT_HEADER) == null && !Boolean.TRUE.equals(properties.getRedelivered());
+    }
+
+    private void push(NotificationEvent event, Message message) {
+        String username = event.dataValue("username");
+        if (!pushEnabled || username == null) {
+            return;
+        }
+        try {
+            pushRouter.publish(username, event.getEventType(), new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (AmqpException e) {
+            // Push is best effort; email delivery must not depend on it
+            logger.warn("Could not publish push for user {}: {}", username, e.getMessage());
+        }
+    }
+
+    private void retryOrDeadLetter(DeliveryLane lane, Message message) {
+        Integer attempts = message.getMessageProperties().getHeader(RETRY_COUNT_HEADER);
+        int nextAttempt = (attempts != null ? attempts : 0) + 1;
+
+        if (nextAttempt >= maxAttempts) {
+            deadLetter(lane, message, "max-attempts");
+            return;
+        }
+
+        message.getMessageProperties().setHeader(RETRY_COUNT_HEADER, nextAttempt);
+        rabbitTemplate.send("", RabbitConfig.retryQueueName(lane.queueName()), message);
+        meterRegistry.counter("notification.consumer.retried", "lane", lane.key()).increment();
+    }
+
+    private void deadLetter(DeliveryLane lane, Message message, String reason) {
+        message.getMessageProperties().setHeader("x-dead-letter-reason", reason);
+        rabbitTemplate.send("", RabbitConfig.deadLetterQueueName(lane.queueName()), message);
+        meterRegistry.counter("notification.consumer.dead-lettered", "lane", lane.key(), "reason", reason).increment();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.notificationservice.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pool of connected SMTP transports. A borrowed transport is used for a
+ * whole batch of messages and returned still connected, so the TCP/TLS handshake
+ * and AUTH are paid once per connection instead of once per email.
+ */
+public class SmtpSessionPool implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpSessionPool.class);
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final long validateAfterIdleMs;
+
+    private final Semaphore permits;
+    private final BlockingQueue<PooledTransport> idle;
+
+    public SmtpSessionPool(Session session, String host, int port, String username, String password,
+                           int size, long validateAfterIdleMs) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.permits = new Semaphore(size, true);
+        this.idle = new LinkedBlockingQueue<>(size);
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public PooledTransport borrow(long timeoutMs) throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("Timed out waiting for an SMTP connection after " + timeoutMs + " ms");
+        }
+
+        try {
+            PooledTransport pooled = idle.poll();
+            if (pooled == null) {
+                pooled = new PooledTransport(session.getTransport("smtp"));
+            }
+            ensureConnected(pooled);
+            return pooled;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(PooledTransport pooled, boolean broken) {
+        try {
+            if (broken) {
+                close(pooled);
+            } else {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                if (!idle.offer(pooled)) {
+                    close(pooled);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void ensureConnected(PooledTransport pooled) throws MessagingException {
+        Transport transport = pooled.transport;
+
+        // isConnected() costs a NOOP round-trip, so only probe connections that sat idle;
+        // a dead busy connection surfaces as a send failure and is released as broken
+        if (pooled.connected) {
+            boolean stale = System.currentTimeMillis() - pooled.lastUsedAt > validateAfterIdleMs;
+            if (!stale || transport.isConnected()) {
+                return;
+            }
+            close(pooled);
+        }
+
+        transport.connect(host, port, emptyToNull(username), emptyToNull(password));
+        pooled.connected = true;
+        logger.debug("Opened SMTP connection to {}:{}", host, port);
+    }
+
+    private void close(PooledTransport pooled) {
+        pooled.connected = false;
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    public static final class PooledTransport {
+        private final Transport transport;
+        private long lastUsedAt = System.currentTimeMillis();
+        private boolean connected;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.notificationservice.web.controller;
+
+import com.example.notificationservice.push.PushConnectionRegistry;
+import com.example.notificationservice.push.SsePushConnection;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/notifications")
+public class PushController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushController.class);
+
+    private final PushConnectionRegistry connectionRegistry;
+    private final ThreadPoolTaskExecutor sseWriter;
+
+    @Value("${notification.push.sse.timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    @Value("${notification.push.sse.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${notification.push.sse.send-buffer-limit:16384}")
+    private int sendBufferLimit;
+
+    /**
+     * SSE writes happen on this pool, never on the push listener or heartbeat thread.
+     * Each connection has at most one write in progress, so a full pool means that many
+     * clients are stalled at once; further connections are closed rather than queued.
+     */
+    @Autowired
+    public PushController(PushConnectionRegistry connectionRegistry,
+                          @Value("${notification.push.sse.writer-threads:32}") int writerThreads,
+                          @Value("${notification.push.sse.writer-queue:1000}") int writerQueue) {
+        this.connectionRegistry = connectionRegistry;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sse-writer-");
+        executor.setCorePoolSize(writerThreads);
+        executor.setMaxPoolSize(writerThreads);
+        executor.setQueueCapacity(writerQueue);
+        executor.initialize();
+        this.sseWriter = executor;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+        if (authUser == null || authUser.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing X-Auth-User header");
+        }
+
+        // Async request: the servlet thread is released as soon as this method returns
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        SsePushConnection connection = new SsePushConnection(authUser, emitter, sseWriter,
+                sendTimeLimitMs, sendBufferLimit);
+
+        emitter.onCompletion(() -> connectionRegistry.unregister(connection));
+        emitter.onTimeout(() -> connectionRegistry.unregister(connection));
+        emitter.onError(error -> connectionRegistry.unregister(connection));
+
+        connectionRegistry.register(connection);
+        logger.debug("SSE stream opened for user: {}", authUser);
+
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sseWriter.shutdown();
+    }
+}
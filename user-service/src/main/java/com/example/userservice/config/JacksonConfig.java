@@ -0,0 +1,39 @@
+package com.example.userservice.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces reflective getter/setter calls with generated lambdas for every bean
+     * Jackson still serializes by introspection (request DTOs, actuator payloads).
+     * Boot registers {@link Module} beans with the shared ObjectMapper. Native images
+     * cannot define classes at runtime, so there the plain reflective path is kept.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        if (NativeDetector.inNativeImage()) {
+            return new SimpleModule("blackbird-disabled");
+        }
+        return new BlackbirdModule();
+    }
+
+    /**
+     * application/cbor for internal callers, built from Boot's customized builder so it
+     * shares modules and settings with the JSON mapper. It replaces MVC's default CBOR
+     * converter in place, after JSON, so a wildcard Accept header still gets JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.config;
+
+import com.example.userservice.model.OutboxEvent;
+import com.example.userservice.model.User;
+import com.example.userservice.service.HotKeyTracker;
+import com.example.userservice.web.dto.UserDto;
+import com.example.userservice.web.dto.UserResponse;
+import com.example.userservice.web.dto.UserSearchPage;
+import com.example.userservice.web.json.UserResponseSerializer;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the AOT/native build (mvn -Pcds / -Pnative).
+ * The Lombok-generated accessors of the entities and DTOs are only reached through
+ * Jackson and Hibernate, so they are registered for binding explicitly.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({User.class, UserDto.class, UserResponse.class, UserSearchPage.class,
+        OutboxEvent.class, HotKeyTracker.HotKey.class, OpenAPI.class, Info.class, Contact.class, License.class,
+        Server.class})
+public class NativeHintsConfig {
+
+    /**
+     * Eureka client model, (de)serialized reflectively by the Eureka Jackson codecs.
+     */
+    private static final List<String> EUREKA_TYPES = List.of(
+            "com.netflix.appinfo.InstanceInfo",
+            "com.netflix.appinfo.InstanceInfo$InstanceStatus",
+            "com.netflix.appinfo.InstanceInfo$PortType",
+            "com.netflix.appinfo.InstanceInfo$ActionType",
+            "com.netflix.appinfo.LeaseInfo",
+            "com.netflix.appinfo.DataCenterInfo",
+            "com.netflix.appinfo.DataCenterInfo$Name",
+            "com.netflix.appinfo.MyDataCenterInfo",
+            "com.netflix.appinfo.AmazonInfo",
+            "com.netflix.discovery.shared.Application",
+            "com.netflix.discovery.shared.Applications",
+            "com.netflix.discovery.converters.jackson.DataCenterTypeInfoResolver",
+            "com.netflix.discovery.converters.jackson.builder.ApplicationsJacksonBuilder");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : EUREKA_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type, MemberCategory.values());
+            }
+            // Instantiated by Jackson from @JsonSerialize(using = ...)
+            hints.reflection().registerType(UserResponseSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            // springdoc serves the Swagger UI from the webjar and renders the OpenAPI model with Jackson
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*");
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*/*");
+        }
+    }
+}
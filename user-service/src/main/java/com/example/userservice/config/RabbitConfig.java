@@ -0,0 +1,39 @@
+package com.example.userservice.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public TopicExchange userEventsExchange(@Value("${outbox.relay.exchange:user.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    /**
+     * One exclusive, auto-delete queue per replica, so every replica sees every user
+     * change and evicts it from its own profile cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "user.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public AnonymousQueue userCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("user-service.cache."));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "user.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public Declarables userCacheInvalidationBindings(TopicExchange userEventsExchange,
+                                                     AnonymousQueue userCacheInvalidationQueue) {
+        return new Declarables(
+                BindingBuilder.bind(userCacheInvalidationQueue).to(userEventsExchange).with("user.updated"),
+                BindingBuilder.bind(userCacheInvalidationQueue).to(userEventsExchange).with("user.deleted"));
+    }
+}
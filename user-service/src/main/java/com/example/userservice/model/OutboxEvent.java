@@ -0,0 +1,52 @@
+package com.example.userservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Domain event written in the same transaction as the user change it describes.
+ * The {@code OutboxRelay} later publishes it to RabbitMQ and marks it published.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_pending", columnList = "publishedAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private String aggregateId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant publishedAt;
+}
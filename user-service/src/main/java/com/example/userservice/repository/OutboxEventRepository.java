@@ -0,0 +1,32 @@
+package com.example.userservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.userservice.model.OutboxEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several relay replicas drain disjoint batches in parallel
+    @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (" +
+            "SELECT id FROM outbox_events WHERE published_at < :cutoff " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
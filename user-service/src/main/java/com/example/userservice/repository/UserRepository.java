@@ -1,14 +1,66 @@
 package com.example.userservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.userservice.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    /**
+     * Prefix match on username or full name. Each branch walks its own prefix index and
+     * stops at {@code limit}; exact username matches rank first, then username prefixes,
+     * then full-name prefixes, shorter usernames first. {@code pattern} is the escaped,
+     * lower-cased prefix followed by {@code %}.
+     */
+    @Query(value = """
+            SELECT hit.id AS "id", hit.username AS "username",
+                   hit.full_name AS "fullName", hit.avatar_url AS "avatarUrl"
+            FROM (
+                (SELECT id, username, full_name, avatar_url,
+                        CASE WHEN lower(username) = :term THEN 0 ELSE 1 END AS rank
+                 FROM users
+                 WHERE lower(username) COLLATE "C" LIKE :pattern
+                 ORDER BY lower(username) COLLATE "C"
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT id, username, full_name, avatar_url, 2 AS rank
+                 FROM users
+                 WHERE lower(full_name) COLLATE "C" LIKE :pattern
+                 ORDER BY lower(full_name) COLLATE "C"
+                 LIMIT :limit)
+            ) hit
+            GROUP BY hit.id, hit.username, hit.full_name, hit.avatar_url
+            ORDER BY min(hit.rank), length(hit.username), hit.username
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSearchHit> autocomplete(@Param("term") String term,
+                                     @Param("pattern") String pattern,
+                                     @Param("limit") int limit);
+
+    /**
+     * Typo-tolerant match using pg_trgm: trigram similarity against the username and
+     * word similarity against the full name (so a single name matches "first last").
+     * Ranked by the better of the two, ties broken by id for stable pages.
+     */
+    @Query(value = """
+            SELECT id AS "id", username AS "username",
+                   full_name AS "fullName", avatar_url AS "avatarUrl"
+            FROM users
+            WHERE lower(username) % :term OR :term <% lower(full_name)
+            ORDER BY greatest(similarity(lower(username), :term),
+                              word_similarity(:term, lower(full_name))) DESC, id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<UserSearchHit> search(@Param("term") String term,
+                               @Param("limit") int limit,
+                               @Param("offset") int offset);
 }
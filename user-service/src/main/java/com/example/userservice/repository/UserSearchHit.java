@@ -0,0 +1,11 @@
+package com.example.userservice.repository;
+
+/**
+ * Columns returned by the search queries; only what the list views render.
+ */
+public interface UserSearchHit {
+    Long getId();
+    String getUsername();
+    String getFullName();
+    String getAvatarUrl();
+}
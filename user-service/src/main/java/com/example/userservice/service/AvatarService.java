@@ -0,0 +1,291 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Avatar uploads and thumbnails. Uploads run on their own bounded pool and thumbnails
+ * on another, so slow clients or large images never hold the Tomcat threads that serve
+ * the profile API. Originals and thumbnails are content-addressed: a thumbnail is named
+ * {@code <sha256 of original>-<size>.<ext>} and never changes.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarService.class);
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif");
+    private static final Map<String, String> FORMATS = Map.of(
+            "jpeg", "jpg",
+            "png", "png",
+            "gif", "gif");
+    private static final Pattern THUMBNAIL = Pattern.compile("([0-9a-f]{64})-([0-9]+)\\.(jpg|png)");
+
+    private final ObjectStore objectStore;
+    private final UserService userService;
+    private final long maxBytes;
+    private final int maxDimension;
+    private final List<Integer> thumbnailSizes;
+    private final Set<String> thumbnailSizeNames;
+    private final String publicPath;
+
+    private final ThreadPoolTaskExecutor uploadExecutor;
+    private final ThreadPoolTaskExecutor thumbnailExecutor;
+    // Originals with a thumbnail job queued or running, so misses don't pile up duplicates
+    private final Set<String> thumbnailsQueued = ConcurrentHashMap.newKeySet();
+
+    private final Timer thumbnailTimer;
+    private final Counter thumbnailsRejected;
+
+    @Autowired
+    public AvatarService(ObjectStore objectStore,
+                         UserService userService,
+                         MeterRegistry meterRegistry,
+                         @Value("${avatar.max-bytes:5242880}") long maxBytes,
+                         @Value("${avatar.max-dimension:8192}") int maxDimension,
+                         @Value("${avatar.thumbnail-sizes:64,128,256}") List<Integer> thumbnailSizes,
+                         @Value("${avatar.public-path:/users/avatars/}") String publicPath,
+                         @Value("${avatar.upload.threads:4}") int uploadThreads,
+                         @Value("${avatar.upload.queue:16}") int uploadQueue,
+                         @Value("${avatar.thumbnails.threads:2}") int thumbnailThreads,
+                         @Value("${avatar.thumbnails.queue:200}") int thumbnailQueue) {
+        this.objectStore = objectStore;
+        this.userService = userService;
+        this.maxBytes = maxBytes;
+        this.maxDimension = maxDimension;
+        this.thumbnailSizes = List.copyOf(thumbnailSizes);
+        this.thumbnailSizeNames = thumbnailSizes.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+        this.publicPath = publicPath;
+
+        this.uploadExecutor = boundedPool("avatar-upload-", uploadThreads, uploadQueue);
+        this.thumbnailExecutor = boundedPool("avatar-thumbnail-", thumbnailThreads, thumbnailQueue);
+
+        this.thumbnailTimer = Timer.builder("avatar.thumbnails")
+                .description("Time to decode an original and write all its thumbnails")
+                .register(meterRegistry);
+        this.thumbnailsRejected = Counter.builder("avatar.thumbnails.rejected")
+                .description("Thumbnail jobs dropped because the pool queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("avatar.pool.queued", Tags.of("pool", "upload"),
+                uploadExecutor, pool -> pool.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("avatar.pool.queued", Tags.of("pool", "thumbnail"),
+                thumbnailExecutor, pool -> pool.getThreadPoolExecutor().getQueue().size());
+    }
+
+    private static ThreadPoolTaskExecutor boundedPool(String prefix, int threads, int queue) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queue);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Pool the upload endpoint hands its request body to; rejects with
+     * {@link TaskRejectedException} when all upload slots and queue entries are taken.
+     */
+    public AsyncTaskExecutor uploadExecutor() {
+        return uploadExecutor;
+    }
+
+    /**
+     * Streams the body into the object store, checks that it is an image we can read,
+     * points the user at it and queues its thumbnails. {@code commit} is asked right
+     * before the user is updated; if it returns false the caller has given up on the
+     * upload and nothing is changed. The stored object stays, since content-addressed
+     * objects may be shared with other users.
+     *
+     * @return the updated user, or empty when {@code commit} declined
+     */
+    public Optional<User> upload(Long userId, InputStream body, String contentType,
+                                 BooleanSupplier commit) throws IOException {
+        String extension = contentType != null ? EXTENSIONS.get(contentType.toLowerCase(Locale.ROOT)) : null;
+        if (extension == null) {
+            throw new InvalidAvatarException("Avatar must be one of " + EXTENSIONS.keySet());
+        }
+
+        // Fail before reading the body if the user does not exist
+        userService.getUserById(userId);
+
+        ObjectStore.StoredObject stored = objectStore.putContentAddressed(body, extension, maxBytes);
+        verify(stored, extension);
+
+        if (!commit.getAsBoolean()) {
+            logger.info("Dropped avatar {} for user ID: {}, the upload was abandoned", stored.name(), userId);
+            return Optional.empty();
+        }
+
+        User user = userService.updateAvatar(userId, publicPath + stored.name());
+        logger.info("Stored avatar {} ({} bytes) for user ID: {}", stored.name(), stored.size(), userId);
+
+        scheduleThumbnails(stored.sha256(), extension);
+        return Optional.of(user);
+    }
+
+    private void verify(ObjectStore.StoredObject stored, String extension) throws IOException {
+        String problem;
+        try {
+            ImageResizer.ImageInfo info = ImageResizer.probe(fileOf(stored.name()));
+            if (!extension.equals(FORMATS.get(info.format()))) {
+                problem = "Content is " + info.format() + ", not " + extension;
+            } else if (info.width() > maxDimension || info.height() > maxDimension) {
+                problem = "Avatar must be at most " + maxDimension + "px on each side";
+            } else {
+                return;
+            }
+        } catch (IOException e) {
+            problem = "Not a readable image: " + e.getMessage();
+        }
+        objectStore.delete(stored.name());
+        throw new InvalidAvatarException(problem);
+    }
+
+    /**
+     * Returns the stored object. A thumbnail that does not exist yet (job dropped or
+     * still queued) is scheduled again unless it is already queued, and reported
+     * missing, so the caller can fall back to the original.
+     */
+    public Optional<Resource> find(String name) {
+        Optional<Resource> resource = objectStore.get(name);
+        if (resource.isEmpty()) {
+            originalForThumbnail(name).ifPresent(original ->
+                    scheduleThumbnails(original.substring(0, original.lastIndexOf('.')), extensionOf(original)));
+        }
+        return resource;
+    }
+
+    /**
+     * Where to send a client asking for a thumbnail that is not there yet: the original
+     * it will be made from. Empty for sizes or extensions that are never generated.
+     */
+    public Optional<String> fallbackUrl(String name) {
+        return originalForThumbnail(name).map(original -> publicPath + original);
+    }
+
+    /**
+     * @return the original a thumbnail name would be generated from, if the name is in
+     *         one of the configured sizes with the extension used for that original
+     */
+    private Optional<String> originalForThumbnail(String name) {
+        Matcher thumbnail = THUMBNAIL.matcher(name);
+        if (!thumbnail.matches() || !thumbnailSizeNames.contains(thumbnail.group(2))) {
+            return Optional.empty();
+        }
+        return originalOf(thumbnail.group(1))
+                .filter(original -> thumbnailExtension(extensionOf(original)).equals(thumbnail.group(3)));
+    }
+
+    private Optional<String> originalOf(String sha256) {
+        return FORMATS.values().stream()
+                .distinct()
+                .map(extension -> sha256 + "." + extension)
+                .filter(objectStore::exists)
+                .findFirst();
+    }
+
+    private void scheduleThumbnails(String sha256, String extension) {
+        if (!thumbnailsQueued.add(sha256)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> {
+                try {
+                    generateThumbnails(sha256, extension);
+                } finally {
+                    thumbnailsQueued.remove(sha256);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            thumbnailsQueued.remove(sha256);
+            thumbnailsRejected.increment();
+            logger.warn("Thumbnail queue full, {} will be generated on first request", sha256);
+        }
+    }
+
+    private static String thumbnailExtension(String extension) {
+        return "jpg".equals(extension) ? "jpg" : "png";
+    }
+
+    private void generateThumbnails(String sha256, String extension) {
+        String thumbnailExtension = thumbnailExtension(extension);
+        List<Integer> missing = thumbnailSizes.stream()
+                .filter(size -> !objectStore.exists(thumbnailName(sha256, size, thumbnailExtension)))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        thumbnailTimer.record(() -> {
+            try {
+                int largest = missing.stream().mapToInt(Integer::intValue).max().orElseThrow();
+                BufferedImage square = ImageResizer.decodeSquare(fileOf(sha256 + "." + extension), largest);
+                for (int size : missing) {
+                    objectStore.put(thumbnailName(sha256, size, thumbnailExtension),
+                            out -> ImageResizer.writeThumbnail(square, size, thumbnailExtension, out));
+                }
+                logger.debug("Generated thumbnails {} for {}", missing, sha256);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Could not generate thumbnails for {}: {}", sha256, e.getMessage());
+            }
+        });
+    }
+
+    public static String thumbnailName(String sha256, int size, String extension) {
+        return sha256 + "-" + size + "." + extension;
+    }
+
+    private static String extensionOf(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private File fileOf(String name) throws IOException {
+        Resource resource = objectStore.get(name)
+                .orElseThrow(() -> new IOException("Object not found: " + name));
+        return resource.getFile();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+        thumbnailExecutor.shutdown();
+    }
+}
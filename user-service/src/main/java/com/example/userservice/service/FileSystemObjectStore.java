@@ -0,0 +1,182 @@
+package com.example.userservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ObjectStore} on the local filesystem, standing in for MinIO/S3. Objects live
+ * under {@code <root>/<aa>/<bb>/<name>} (first four hex digits of the name) so no single
+ * directory grows large. Writes go to a temp file first and are moved into place
+ * atomically, so readers never see a partial object.
+ */
+@Component
+public class FileSystemObjectStore implements ObjectStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemObjectStore.class);
+
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}(-[0-9]+)?\\.[a-z]{3,4}");
+
+    private final Path root;
+    private final Path tmp;
+
+    public FileSystemObjectStore(@Value("${avatar.storage-dir:${java.io.tmpdir}/user-service/avatars}") String root) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        try {
+            Files.createDirectories(tmp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create avatar storage at " + this.root, e);
+        }
+        logger.info("Avatar object store at {}", this.root);
+    }
+
+    public static boolean isValidName(String name) {
+        return NAME.matcher(name).matches();
+    }
+
+    @Override
+    public StoredObject putContentAddressed(InputStream content, String extension, long maxBytes) throws IOException {
+        Path part = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            DigestInputStream digesting = new DigestInputStream(
+                    new LimitedInputStream(content, maxBytes), sha256());
+            long size;
+            try (OutputStream out = Files.newOutputStream(part)) {
+                size = digesting.transferTo(out);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digesting.getMessageDigest().digest());
+            String name = sha256 + "." + extension;
+            moveIntoPlace(part, name);
+            return new StoredObject(name, sha256, size);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    @Override
+    public void put(String name, ContentWriter writer) throws IOException {
+        if (exists(name)) {
+            return;
+        }
+        Path part = Files.createTempFile(tmp, "put-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                writer.writeTo(out);
+            }
+            moveIntoPlace(part, name);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String name) {
+        if (!isValidName(name)) {
+            return Optional.empty();
+        }
+        Path path = pathOf(name);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String name) {
+        return isValidName(name) && Files.isRegularFile(pathOf(name));
+    }
+
+    @Override
+    public void delete(String name) throws IOException {
+        if (isValidName(name)) {
+            Files.deleteIfExists(pathOf(name));
+        }
+    }
+
+    private void moveIntoPlace(Path part, String name) throws IOException {
+        Path target = pathOf(name);
+        if (Files.exists(target)) {
+            // Same name means same content; keep the existing object
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            logger.debug("Object {} was stored concurrently", name);
+        }
+    }
+
+    private Path pathOf(String name) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid object name: " + name);
+        }
+        return root.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Fails the copy as soon as the limit is crossed instead of after the whole body
+     * has been written to disk.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long read;
+
+        private LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws TooLargeException {
+            read += n;
+            if (read > maxBytes) {
+                throw new TooLargeException(maxBytes);
+            }
+        }
+    }
+}
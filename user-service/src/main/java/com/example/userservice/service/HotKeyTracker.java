@@ -0,0 +1,121 @@
+package com.example.userservice.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Space-Saving top-K sketch: tracks at most {@code capacity} keys in fixed memory. A new
+ * key replaces the one with the smallest count and inherits that count as its error
+ * bound, so a key that really is frequent can never be missed. Counts are halved every
+ * decay window so the set follows current traffic. Only a sample of requests is
+ * counted (10% by default), so most reads never take the lock, and the
+ * O(capacity) victim scan on a new key runs only for sampled misses of the sketch;
+ * {@code minCount} is given in unsampled requests and scaled to the rate.
+ */
+public class HotKeyTracker {
+
+    public record HotKey(String key, long count, long error) {
+    }
+
+    private final int capacity;
+    private final int top;
+    private final long minCount;
+    private final double sampleRate;
+
+    private final Map<String, Counter> counters;
+    private volatile Set<String> hotKeys = Set.of();
+
+    public HotKeyTracker(int capacity, int top, long minCount, double sampleRate) {
+        this.capacity = capacity;
+        this.top = top;
+        this.minCount = minCount;
+        this.sampleRate = sampleRate;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void record(String key) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        synchronized (this) {
+            Counter counter = counters.get(key);
+            if (counter != null) {
+                counter.count++;
+                return;
+            }
+            if (counters.size() < capacity) {
+                counters.put(key, new Counter(1, 0));
+                return;
+            }
+
+            String victim = null;
+            long smallest = Long.MAX_VALUE;
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                if (entry.getValue().count < smallest) {
+                    smallest = entry.getValue().count;
+                    victim = entry.getKey();
+                }
+            }
+            counters.remove(victim);
+            counters.put(key, new Counter(smallest + 1, smallest));
+        }
+    }
+
+    /**
+     * Lock-free read of the hot set computed at the last {@link #decay()}.
+     */
+    public boolean isHot(String key) {
+        return hotKeys.contains(key);
+    }
+
+    public Set<String> hotKeys() {
+        return hotKeys;
+    }
+
+    /**
+     * Publishes the current top keys whose guaranteed count (count minus error) clears
+     * the threshold, then halves all counts and drops keys that reach zero.
+     */
+    public synchronized List<HotKey> decay() {
+        List<HotKey> ranked = snapshot();
+        hotKeys = ranked.stream()
+                .filter(hot -> hot.count() - hot.error() >= scaledMinCount())
+                .limit(top)
+                .map(HotKey::key)
+                .collect(Collectors.toUnmodifiableSet());
+
+        counters.values().forEach(counter -> {
+            counter.count /= 2;
+            counter.error /= 2;
+        });
+        counters.values().removeIf(counter -> counter.count == 0);
+        return ranked;
+    }
+
+    public synchronized List<HotKey> snapshot() {
+        List<HotKey> ranked = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> ranked.add(new HotKey(key, counter.count, counter.error)));
+        ranked.sort(Comparator.comparingLong(HotKey::count).reversed());
+        return ranked;
+    }
+
+    private long scaledMinCount() {
+        return Math.max(1, Math.round(minCount * sampleRate));
+    }
+
+    private static final class Counter {
+        private long count;
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
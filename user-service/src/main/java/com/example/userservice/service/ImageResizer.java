@@ -0,0 +1,114 @@
+package com.example.userservice.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Square thumbnails with ImageIO/Java2D. Images are read straight from the stored file
+ * and decoding is subsampled, so a large photo is never fully decoded just to produce
+ * a 256px avatar.
+ */
+final class ImageResizer {
+
+    record ImageInfo(String format, int width, int height) {
+    }
+
+    private ImageResizer() {
+    }
+
+    /**
+     * Reads only the header: format name and dimensions.
+     *
+     * @throws IOException if the content is not an image ImageIO can decode
+     */
+    static ImageInfo probe(File file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = readerFor(input);
+            try {
+                reader.setInput(input, true, true);
+                return new ImageInfo(reader.getFormatName().toLowerCase(Locale.ROOT),
+                        reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decodes the image at a resolution close to {@code maxSize} and returns it
+     * center-cropped to a square, ready to be scaled to each thumbnail size.
+     */
+    static BufferedImage decodeSquare(File file, int maxSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = readerFor(input);
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int side = Math.min(width, height);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                // Keep at least 2x the largest target so downscaling still looks smooth
+                int subsampling = Math.max(1, side / (maxSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static void writeThumbnail(BufferedImage square, int size, String format, OutputStream out) throws IOException {
+        boolean jpeg = "jpg".equals(format);
+        BufferedImage scaled = new BufferedImage(size, size,
+                jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(square, 0, 0, size, size, null);
+        } finally {
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(jpeg ? "jpeg" : "png").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (jpeg) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0.85f);
+            }
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static ImageReader readerFor(ImageInputStream input) throws IOException {
+        if (input == null) {
+            throw new IOException("Unreadable image");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("Unsupported image format");
+        }
+        return readers.next();
+    }
+}
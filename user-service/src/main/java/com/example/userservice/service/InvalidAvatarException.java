@@ -0,0 +1,11 @@
+package com.example.userservice.service;
+
+/**
+ * The uploaded body is not an image we accept (type, format or dimensions).
+ */
+public class InvalidAvatarException extends RuntimeException {
+
+    public InvalidAvatarException(String message) {
+        super(message);
+    }
+}
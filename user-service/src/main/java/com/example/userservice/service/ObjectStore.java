@@ -0,0 +1,50 @@
+package com.example.userservice.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Immutable blob storage for avatars. Objects are never overwritten, so every name can
+ * be cached forever by clients and CDNs.
+ */
+public interface ObjectStore {
+
+    /**
+     * Streams {@code content} into the store and names it after its SHA-256, so
+     * identical uploads share one object. Nothing is buffered in the heap beyond the
+     * copy buffer.
+     *
+     * @throws TooLargeException once more than {@code maxBytes} have been read
+     */
+    StoredObject putContentAddressed(InputStream content, String extension, long maxBytes) throws IOException;
+
+    /**
+     * Stores an object under a name derived by the caller (e.g. a thumbnail of a
+     * content-addressed original). Does nothing if the name already exists.
+     */
+    void put(String name, ContentWriter writer) throws IOException;
+
+    Optional<Resource> get(String name);
+
+    boolean exists(String name);
+
+    void delete(String name) throws IOException;
+
+    record StoredObject(String name, String sha256, long size) {
+    }
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    class TooLargeException extends IOException {
+        public TooLargeException(long maxBytes) {
+            super("Object exceeds the limit of " + maxBytes + " bytes");
+        }
+    }
+}
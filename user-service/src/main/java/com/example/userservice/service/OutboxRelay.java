@@ -0,0 +1,151 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.OutboxEvent;
+import com.example.userservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} to RabbitMQ. Each batch is locked with
+ * {@code FOR UPDATE SKIP LOCKED}, published with publisher confirms and marked
+ * published in the same relay transaction, so several replicas can run it at once
+ * and a failed publish simply leaves the rows for the next poll.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedCounter;
+    private final Counter trimmedCounter;
+    private final Timer relayLag;
+    private final Timer batchTimer;
+    private final AtomicLong lastBatchSize = new AtomicLong();
+
+    @Value("${outbox.relay.exchange:user.events}")
+    private String exchange;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${outbox.trim.retention:PT1H}")
+    private Duration trimRetention;
+
+    @Value("${outbox.trim.batch-size:1000}")
+    private int trimBatchSize;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+                .description("Outbox events published to RabbitMQ")
+                .register(meterRegistry);
+        this.trimmedCounter = Counter.builder("outbox.relay.trimmed")
+                .description("Published outbox rows deleted by the trimmer")
+                .register(meterRegistry);
+        this.relayLag = Timer.builder("outbox.relay.lag")
+                .description("Time between an outbox event being committed and published")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to lock, publish and mark one outbox batch")
+                .register(meterRegistry);
+        meterRegistry.gauge("outbox.relay.batch.size", lastBatchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void drain() {
+        int relayed;
+        do {
+            Integer result = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            relayed = result != null ? result : 0;
+        } while (relayed == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        lastBatchSize.set(batch.size());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // One channel and one confirm round-trip for the whole batch
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                operations.send(exchange, event.getRoutingKey(), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+
+        Instant publishedAt = Instant.now();
+        outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), publishedAt);
+
+        for (OutboxEvent event : batch) {
+            relayLag.record(Duration.between(event.getCreatedAt(), publishedAt));
+        }
+        publishedCounter.increment(batch.size());
+        logger.debug("Relayed {} outbox events", batch.size());
+
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.trim.interval-ms:60000}")
+    public void trim() {
+        Instant cutoff = Instant.now().minus(trimRetention);
+        int deleted;
+        do {
+            Integer result = transactionTemplate.execute(status ->
+                    outboxEventRepository.deletePublishedBefore(cutoff, trimBatchSize));
+            deleted = result != null ? result : 0;
+            trimmedCounter.increment(deleted);
+        } while (deleted == trimBatchSize);
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(String.valueOf(event.getId()));
+        properties.setType(event.getEventType());
+        properties.setTimestamp(Date.from(event.getCreatedAt()));
+        properties.setHeader("source_service", "user-service");
+
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
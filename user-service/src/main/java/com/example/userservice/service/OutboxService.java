@@ -0,0 +1,89 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.OutboxEvent;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    public static final String USER_CREATED = "UserCreated";
+    public static final String USER_UPDATED = "UserUpdated";
+    public static final String USER_DELETED = "UserDeleted";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records a user event; must join the caller's transaction so the event
+     * commits (or rolls back) together with the user row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent recordUserEvent(String eventType, User user) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", user.getId());
+        data.put("username", user.getUsername());
+        data.put("email", user.getEmail());
+        data.put("fullName", user.getFullName());
+        data.put("avatarUrl", user.getAvatarUrl());
+
+        Instant now = Instant.now();
+
+        // Event format agreed across services: event_type, data, source_service
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("event_type", eventType);
+        envelope.put("data", data);
+        envelope.put("source_service", "user-service");
+        envelope.put("occurred_at", now.toString());
+
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("User");
+        event.setAggregateId(String.valueOf(user.getId()));
+        event.setEventType(eventType);
+        event.setRoutingKey(routingKeyFor(eventType));
+        event.setPayload(toJson(envelope));
+        event.setCreatedAt(now);
+
+        OutboxEvent saved = outboxEventRepository.save(event);
+        logger.debug("Recorded outbox event {} for user ID: {}", eventType, user.getId());
+
+        return saved;
+    }
+
+    private String routingKeyFor(String eventType) {
+        return switch (eventType) {
+            case USER_CREATED -> "user.created";
+            case USER_UPDATED -> "user.updated";
+            case USER_DELETED -> "user.deleted";
+            default -> throw new IllegalArgumentException("Unknown user event type: " + eventType);
+        };
+    }
+
+    private String toJson(Map<String, Object> envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
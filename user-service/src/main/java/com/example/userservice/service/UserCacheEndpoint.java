@@ -0,0 +1,35 @@
+package com.example.userservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Profile cache state of this replica as the {@code usercache} actuator endpoint
+ * ({@code /actuator/usercache} when exposed): counters, pinned usernames and the
+ * current top-K.
+ */
+@Component
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    private static final int MAX_HOT_KEYS = 32;
+
+    private final UserProfileCache profileCache;
+
+    @Autowired
+    public UserCacheEndpoint(UserProfileCache profileCache) {
+        this.profileCache = profileCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>(profileCache.stats());
+        result.put("topKeys", profileCache.hotKeys().stream().limit(MAX_HOT_KEYS).toList());
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.userservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Evicts profiles changed on any replica, driven by the user events the outbox relay
+ * publishes. How stale another replica can be is bounded by the relay poll interval
+ * plus delivery; events missed while disconnected from the broker are bounded by the
+ * cache TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "user.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class UserCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final UserProfileCache profileCache;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserCacheInvalidationListener(UserProfileCache profileCache, ObjectMapper objectMapper) {
+        this.profileCache = profileCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = "#{userCacheInvalidationQueue.name}")
+    public void onUserEvent(Message message) {
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(message.getBody()).path("data");
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable user event {}: {}",
+                    message.getMessageProperties().getMessageId(), e.getMessage());
+            return;
+        }
+
+        Long id = data.hasNonNull("id") ? data.get("id").asLong() : null;
+        String username = data.hasNonNull("username") ? data.get("username").asText() : null;
+        profileCache.invalidate(id, username);
+        logger.debug("Evicted cached profile for user ID: {} ({})", id, username);
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Replica-local cache for profile reads by username, built for a few very hot keys:
+ * <ul>
+ *   <li>concurrent misses for one username share a single database load;</li>
+ *   <li>entries are refreshed in the background shortly before they expire, with a
+ *       probability that rises as expiry nears (XFetch), so a hot key never expires
+ *       under load;</li>
+ *   <li>usernames reported hot by {@link HotKeyTracker} are pinned: longer TTL and
+ *       never dropped to make room.</li>
+ * </ul>
+ * Writes on this replica evict after commit; other replicas evict when the outbox
+ * event reaches them (see {@link UserCacheInvalidationListener}). A load that was
+ * running when its key got evicted is returned to its callers but not stored.
+ */
+@Component
+public class UserProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProfileCache.class);
+
+    private record Entry(User user, long loadedAt, long expiresAt, long loadNanos, boolean pinned) {
+    }
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long pinnedTtlNanos;
+    private final int maxEntries;
+    private final double earlyRefreshBeta;
+
+    private final HotKeyTracker hotKeys;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<User>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, String> usernamesById = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final ThreadPoolTaskExecutor refreshExecutor;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter earlyRefreshes;
+    private final Counter invalidations;
+    private final Timer loads;
+
+    @Autowired
+    public UserProfileCache(MeterRegistry meterRegistry,
+                            @Value("${user.cache.enabled:true}") boolean enabled,
+                            @Value("${user.cache.ttl:PT30S}") Duration ttl,
+                            @Value("${user.cache.pinned-ttl:PT5M}") Duration pinnedTtl,
+                            @Value("${user.cache.max-entries:10000}") int maxEntries,
+                            @Value("${user.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                            @Value("${user.cache.refresh.threads:2}") int refreshThreads,
+                            @Value("${user.cache.refresh.queue:100}") int refreshQueue,
+                            @Value("${user.cache.hot-keys.capacity:128}") int hotKeyCapacity,
+                            @Value("${user.cache.hot-keys.top:16}") int hotKeyTop,
+                            @Value("${user.cache.hot-keys.min-count:50}") long hotKeyMinCount,
+                            @Value("${user.cache.hot-keys.sample-rate:0.1}") double hotKeySampleRate) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.pinnedTtlNanos = pinnedTtl.toNanos();
+        this.maxEntries = maxEntries;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.hotKeys = new HotKeyTracker(hotKeyCapacity, hotKeyTop, hotKeyMinCount, hotKeySampleRate);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("user-cache-refresh-");
+        executor.setCorePoolSize(refreshThreads);
+        executor.setMaxPoolSize(refreshThreads);
+        executor.setQueueCapacity(refreshQueue);
+        executor.initialize();
+        this.refreshExecutor = executor;
+
+        this.hits = Counter.builder("user.cache.requests").tag("result", "hit")
+                .description("Profile cache lookups by username")
+                .register(meterRegistry);
+        this.misses = Counter.builder("user.cache.requests").tag("result", "miss")
+                .description("Profile cache lookups by username")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("user.cache.requests").tag("result", "coalesced")
+                .description("Profile cache lookups by username")
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("user.cache.early-refreshes")
+                .description("Background reloads started before an entry expired")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("user.cache.invalidations")
+                .description("Usernames evicted after a write on this or another replica")
+                .register(meterRegistry);
+        this.loads = Timer.builder("user.cache.loads")
+                .description("Database loads performed by the profile cache")
+                .register(meterRegistry);
+        meterRegistry.gauge("user.cache.size", entries, Map::size);
+        meterRegistry.gauge("user.cache.pinned", entries,
+                map -> map.values().stream().filter(Entry::pinned).count());
+    }
+
+    /**
+     * Returns the profile for {@code username}, loading it through {@code loader} on a
+     * miss. Missing users are not cached.
+     */
+    public Optional<User> get(String username, Function<String, Optional<User>> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        hotKeys.record(username);
+
+        Entry entry = entries.get(username);
+        long now = System.nanoTime();
+        if (entry != null && now < entry.expiresAt()) {
+            hits.increment();
+            if (shouldRefreshEarly(entry, now)) {
+                refreshAsync(username, loader);
+            }
+            return Optional.of(entry.user());
+        }
+
+        CompletableFuture<Optional<User>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> running = inFlight.putIfAbsent(username, load);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        misses.increment();
+        return load(username, loader, load);
+    }
+
+    /**
+     * XFetch: refresh when {@code now - loadTime * beta * ln(random) >= expiry}. Keys that
+     * take longer to load start refreshing earlier, and on a hot key one request out of
+     * many triggers it rather than all of them at the moment of expiry.
+     */
+    private boolean shouldRefreshEarly(Entry entry, long now) {
+        double gap = -entry.loadNanos() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return now + gap >= entry.expiresAt();
+    }
+
+    private void refreshAsync(String username, Function<String, Optional<User>> loader) {
+        CompletableFuture<Optional<User>> load = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(username, load) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(username, loader, load);
+                } catch (RuntimeException e) {
+                    logger.warn("Early refresh of {} failed: {}", username, e.getMessage());
+                }
+            });
+            earlyRefreshes.increment();
+        } catch (TaskRejectedException e) {
+            // The entry is still valid; a later request will try again
+            inFlight.remove(username, load);
+            load.complete(Optional.ofNullable(entries.get(username)).map(Entry::user));
+        }
+    }
+
+    private Optional<User> load(String username, Function<String, Optional<User>> loader,
+                                CompletableFuture<Optional<User>> load) {
+        Optional<User> user;
+        long started = System.nanoTime();
+        try {
+            user = loader.apply(username);
+        } catch (RuntimeException e) {
+            inFlight.remove(username, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+        long loaded = System.nanoTime();
+        loads.record(loaded - started, TimeUnit.NANOSECONDS);
+
+        Entry stored = user.map(found -> store(username, found, loaded, loaded - started)).orElse(null);
+        // Evicted while loading: the value may predate the write, so do not keep it
+        if (!inFlight.remove(username, load) && stored != null) {
+            entries.remove(username, stored);
+        }
+        load.complete(user);
+        return user;
+    }
+
+    private Entry store(String username, User user, long now, long loadNanos) {
+        boolean pinned = hotKeys.isHot(username);
+        Entry entry = new Entry(user, now, now + (pinned ? pinnedTtlNanos : ttlNanos), loadNanos, pinned);
+        if (entries.put(username, entry) == null && entries.size() > maxEntries) {
+            evictOverflow();
+        }
+        usernamesById.put(user.getId(), username);
+        return entry;
+    }
+
+    private static Optional<User> await(CompletableFuture<Optional<User>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops expired entries, then unpinned ones in iteration order, until the cache is
+     * back under {@code max-entries}. Only one thread does this at a time.
+     */
+    private void evictOverflow() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> now >= entry.expiresAt());
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                if (!iterator.next().pinned()) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Evicts the user's cached profile under every given username (old and new on a
+     * rename) and whatever username was cached for the id.
+     */
+    public void invalidate(Long id, String... usernames) {
+        if (!enabled) {
+            return;
+        }
+        if (id != null) {
+            String cached = usernamesById.remove(id);
+            if (cached != null) {
+                evict(cached);
+            }
+        }
+        for (String username : usernames) {
+            if (username != null) {
+                evict(username);
+            }
+        }
+    }
+
+    private void evict(String username) {
+        // In-flight first, so a load that read the old row cannot store it afterwards
+        inFlight.remove(username);
+        if (entries.remove(username) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Invalidates once the current transaction commits, or right away outside one.
+     */
+    public void invalidateAfterCommit(Long id, String... usernames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(id, usernames);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(id, usernames);
+            }
+        });
+    }
+
+    /**
+     * Publishes the hot set for the last window, pins or unpins cached entries to match
+     * it and drops expired ones.
+     */
+    @Scheduled(fixedDelayString = "${user.cache.hot-keys.decay-interval-ms:10000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        hotKeys.decay();
+
+        long now = System.nanoTime();
+        entries.replaceAll((username, entry) -> {
+            boolean hot = hotKeys.isHot(username);
+            if (hot == entry.pinned()) {
+                return entry;
+            }
+            long expiresAt = entry.loadedAt() + (hot ? pinnedTtlNanos : ttlNanos);
+            return new Entry(entry.user(), entry.loadedAt(), expiresAt, entry.loadNanos(), hot);
+        });
+        entries.values().removeIf(entry -> now >= entry.expiresAt());
+        usernamesById.values().removeIf(username -> !entries.containsKey(username));
+
+        if (!hotKeys.hotKeys().isEmpty()) {
+            logger.debug("Hot usernames: {}", hotKeys.hotKeys());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("pinned", entries.entrySet().stream()
+                .filter(entry -> entry.getValue().pinned())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList());
+        stats.put("inFlight", inFlight.size());
+        stats.put("hits", (long) hits.count());
+        stats.put("misses", (long) misses.count());
+        stats.put("coalesced", (long) coalesced.count());
+        stats.put("earlyRefreshes", (long) earlyRefreshes.count());
+        stats.put("invalidations", (long) invalidations.count());
+        return stats;
+    }
+
+    public List<HotKeyTracker.HotKey> hotKeys() {
+        return hotKeys.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.userservice.service;
 
 import com.example.userservice.model.User;
+import com.example.userservice.repository.UserSearchHit;
 import com.example.userservice.web.dto.UserDto;
 
 import java.util.List;
@@ -13,4 +14,6 @@ public interface UserService {
     User updateUser(Long id, UserDto userDto);
     void deleteUser(Long id);
     User updateAvatar(Long id, String avatarUrl);
+    List<UserSearchHit> autocomplete(String prefix, int limit);
+    List<UserSearchHit> searchUsers(String query, int page, int size);
 }
@@ -2,16 +2,21 @@ package com.example.userservice.service;
 
 import com.example.userservice.model.User;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.repository.UserSearchHit;
 import com.example.userservice.service.UserService;
 import com.example.userservice.web.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Function;
 
 @Service
@@ -20,23 +25,51 @@ public class UserServiceImpl implements UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final UserProfileCache profileCache;
     private final Tracer tracer;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, Tracer tracer) {
+    public UserServiceImpl(UserRepository userRepository, OutboxService outboxService,
+                           UserProfileCache profileCache, Tracer tracer, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.profileCache = profileCache;
         this.tracer = tracer;
+        this.meterRegistry = meterRegistry;
     }
 
+    /**
+     * Runs the operation in its own span and records it in the
+     * {@code user.service.operations} timer, tagged by operation name and outcome so
+     * cardinality stays fixed.
+     */
     private <T> T executeWithTracing(String operationName, Function<Span, T> operation) {
         Span span = tracer.nextSpan()
                 .name(operationName)
                 .tag("service", "user-service")
                 .start();
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String exception = "none";
+
         try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
             return operation.apply(span);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            exception = e.getClass().getSimpleName();
+            meterRegistry.counter("user.service.errors", "operation", operationName, "exception", exception)
+                    .increment();
+            throw e;
         } finally {
+            sample.stop(Timer.builder("user.service.operations")
+                    .description("Latency of UserService operations")
+                    .tag("operation", operationName)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
             span.end();
         }
     }
@@ -62,13 +95,17 @@ public class UserServiceImpl implements UserService {
         });
     }
 
+    /**
+     * Served from the replica-local {@link UserProfileCache}, which absorbs the traffic
+     * on a few very popular profiles.
+     */
     @Override
     public User getUserByUsername(String username) {
         return executeWithTracing("get-user-by-username", span -> {
             span.tag("user.username", username);
-            logger.info("Getting user by username: {}", username);
+            logger.debug("Getting user by username: {}", username);
 
-            User user = userRepository.findByUsername(username)
+            User user = profileCache.get(username, userRepository::findByUsername)
                     .orElseThrow(() -> {
                         span.tag("error", "User not found");
                         logger.warn("User not found with username: {}", username);
@@ -77,7 +114,7 @@ public class UserServiceImpl implements UserService {
 
             span.tag("user.id", user.getId().toString());
             span.tag("user.email", user.getEmail());
-            logger.info("User found by username: {}", username);
+            logger.debug("User found by username: {}", username);
 
             return user;
         });
@@ -98,6 +135,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User createUser(UserDto userDto) {
         return executeWithTracing("create-user", span -> {
             span.tag("user.username", userDto.getUsername());
@@ -124,6 +162,7 @@ public class UserServiceImpl implements UserService {
             user.setBio(userDto.getBio());
 
             User savedUser = userRepository.save(user);
+            outboxService.recordUserEvent(OutboxService.USER_CREATED, savedUser);
 
             span.tag("user.id", savedUser.getId().toString());
             span.tag("operation.result", "success");
@@ -135,6 +174,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User updateUser(Long id, UserDto userDto) {
         return executeWithTracing("update-user", span -> {
             span.tag("user.id", id.toString());
@@ -142,6 +182,7 @@ public class UserServiceImpl implements UserService {
 
             User existingUser = getUserById(id);
             span.tag("user.username", existingUser.getUsername());
+            profileCache.invalidateAfterCommit(id, existingUser.getUsername(), userDto.getUsername());
 
             if (userDto.getUsername() != null) {
                 existingUser.setUsername(userDto.getUsername());
@@ -160,6 +201,7 @@ public class UserServiceImpl implements UserService {
             }
 
             User updatedUser = userRepository.save(existingUser);
+            outboxService.recordUserEvent(OutboxService.USER_UPDATED, updatedUser);
 
             span.tag("operation.result", "success");
             logger.info("User updated successfully: {}", updatedUser.getUsername());
@@ -169,6 +211,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         executeWithTracing("delete-user", span -> {
             span.tag("user.id", id.toString());
@@ -178,6 +221,8 @@ public class UserServiceImpl implements UserService {
             span.tag("user.username", user.getUsername());
 
             userRepository.delete(user);
+            outboxService.recordUserEvent(OutboxService.USER_DELETED, user);
+            profileCache.invalidateAfterCommit(id, user.getUsername());
 
             span.tag("operation.result", "success");
             logger.info("User deleted successfully: {}", user.getUsername());
@@ -187,6 +232,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User updateAvatar(Long id, String avatarUrl) {
         return executeWithTracing("update-user-avatar", span -> {
             span.tag("user.id", id.toString());
@@ -197,6 +243,8 @@ public class UserServiceImpl implements UserService {
 
             user.setAvatarUrl(avatarUrl);
             User updatedUser = userRepository.save(user);
+            outboxService.recordUserEvent(OutboxService.USER_UPDATED, updatedUser);
+            profileCache.invalidateAfterCommit(id, updatedUser.getUsername());
 
             span.tag("operation.result", "success");
             logger.info("Avatar updated successfully for user: {}", user.getUsername());
@@ -204,4 +252,47 @@ public class UserServiceImpl implements UserService {
             return updatedUser;
         });
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<UserSearchHit> autocomplete(String prefix, int limit) {
+        return executeWithTracing("autocomplete-users", span -> {
+            String term = normalize(prefix);
+            span.tag("search.length", String.valueOf(term.length()));
+
+            List<UserSearchHit> hits = userRepository.autocomplete(term, escapeLike(term) + "%", limit);
+
+            span.tag("users.count", String.valueOf(hits.size()));
+            logger.debug("Autocomplete '{}' returned {} users", term, hits.size());
+
+            return hits;
+        });
+    }
+
+    /**
+     * Returns up to {@code size + 1} hits so the caller can tell whether another page
+     * exists without a separate count query over all matches.
+     */
+    @Override
+    public List<UserSearchHit> searchUsers(String query, int page, int size) {
+        return executeWithTracing("search-users", span -> {
+            String term = normalize(query);
+            span.tag("search.length", String.valueOf(term.length()));
+            span.tag("search.page", String.valueOf(page));
+
+            List<UserSearchHit> hits = userRepository.search(term, size + 1, page * size);
+
+            span.tag("users.count", String.valueOf(hits.size()));
+            logger.debug("Search '{}' page {} returned {} users", term, page, hits.size());
+
+            return hits;
+        });
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
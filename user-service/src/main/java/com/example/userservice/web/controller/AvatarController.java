@@ -0,0 +1,223 @@
+package com.example.userservice.web.controller;
+
+import com.example.userservice.model.User;
+import com.example.userservice.service.AvatarService;
+import com.example.userservice.service.InvalidAvatarException;
+import com.example.userservice.service.ObjectStore;
+import com.example.userservice.web.dto.UserResponse;
+import com.example.userservice.web.view.UserView;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/users")
+@Tag(name = "Avatars", description = "Avatar upload and image serving")
+public class AvatarController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarController.class);
+
+    // Tomcat's sendfile contract (the same attributes its DefaultServlet uses)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this a plain write from the page cache is cheaper (DefaultServlet's default too)
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    // Names are content hashes, so a response can be cached for as long as caches allow
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final AvatarService avatarService;
+    private final Tracer tracer;
+    private final long uploadTimeoutMs;
+
+    @Autowired
+    public AvatarController(AvatarService avatarService, Tracer tracer,
+                            @Value("${avatar.upload.timeout-ms:30000}") long uploadTimeoutMs) {
+        this.avatarService = avatarService;
+        this.tracer = tracer;
+        this.uploadTimeoutMs = uploadTimeoutMs;
+    }
+
+    private <T> T executeWithTracing(String operationName, String endpoint, Function<Span, T> operation) {
+        Span span = tracer.nextSpan()
+                .name(operationName)
+                .tag("service", "user-service")
+                .tag("endpoint", endpoint)
+                .start();
+
+        try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
+            return operation.apply(span);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Raw image body (not multipart), read on the avatar upload pool: the Tomcat thread
+     * is released as soon as the request is accepted. The worker and the async timeout
+     * race for a single flag, so a timed-out upload never updates the user after the
+     * client was answered 503; if the worker won, the timeout reports its outcome instead.
+     */
+    @PostMapping(value = "/{id}/avatar", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE})
+    @Operation(summary = "Upload avatar", description = "Upload a JPEG, PNG or GIF image as the request body")
+    public WebAsyncTask<ResponseEntity<UserResponse>> uploadAvatar(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = "X-Auth-User", required = false) String authUser,
+            HttpServletRequest request) {
+
+        if (request.getContentLengthLong() > avatarService.maxBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Avatar exceeds the limit of " + avatarService.maxBytes() + " bytes");
+        }
+
+        String type = contentType.getType() + "/" + contentType.getSubtype();
+        AtomicBoolean settled = new AtomicBoolean();
+        CompletableFuture<ResponseEntity<UserResponse>> committed = new CompletableFuture<>();
+
+        WebAsyncTask<ResponseEntity<UserResponse>> task = new WebAsyncTask<>(uploadTimeoutMs,
+                avatarService.uploadExecutor(), () ->
+                executeWithTracing("upload-avatar-endpoint", "/users/{id}/avatar", span -> {
+                    span.tag("user.id", id.toString());
+                    if (authUser != null) {
+                        span.tag("auth.user", authUser);
+                    }
+                    logger.info("Avatar upload for user ID: {} ({} bytes)", id, request.getContentLengthLong());
+
+                    try {
+                        Optional<User> user = avatarService.upload(id, request.getInputStream(), type,
+                                () -> settled.compareAndSet(false, true));
+                        if (user.isEmpty()) {
+                            span.tag("operation.result", "timed-out");
+                            return null;
+                        }
+
+                        span.tag("operation.result", "success");
+                        ResponseEntity<UserResponse> response = ResponseEntity.ok(
+                                UserResponse.of(user.get(), UserView.FULL.fields()));
+                        committed.complete(response);
+                        return response;
+                    } catch (ObjectStore.TooLargeException e) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+                    } catch (IOException e) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not read upload", e);
+                    } catch (RuntimeException e) {
+                        committed.completeExceptionally(e);
+                        throw e;
+                    }
+                }));
+
+        task.onTimeout(() -> {
+            if (settled.compareAndSet(false, true)) {
+                logger.warn("Avatar upload for user ID: {} timed out after {} ms", id, uploadTimeoutMs);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Avatar upload timed out");
+            }
+            // The worker is already updating the user; answer with what it ends up doing
+            try {
+                return committed.get(uploadTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Serves an original or thumbnail. Larger full responses go out through Tomcat's
+     * sendfile (kernel copy, no heap buffer); Range requests are answered with 206 by
+     * Spring's resource region support. A thumbnail that is not generated yet redirects
+     * to the original without caching.
+     */
+    @GetMapping("/avatars/{name}")
+    @Operation(summary = "Get avatar image", description = "Original or <hash>-<size> thumbnail; cacheable forever")
+    public ResponseEntity<Resource> getAvatar(@PathVariable String name,
+                                              @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                              HttpServletRequest request,
+                                              WebRequest webRequest) throws IOException {
+
+        Optional<Resource> found = avatarService.find(name);
+        if (found.isEmpty()) {
+            return avatarService.fallbackUrl(name)
+                    .map(url -> ResponseEntity.status(HttpStatus.FOUND)
+                            .location(URI.create(url))
+                            .cacheControl(CacheControl.noStore())
+                            .<Resource>build())
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+
+        String etag = "\"" + name + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(IMMUTABLE).build();
+        }
+
+        Resource resource = found.get();
+        MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        long length = resource.contentLength();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .cacheControl(IMMUTABLE)
+                .eTag(etag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (range == null && length >= SENDFILE_MIN_BYTES && resource.isFile()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, resource.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.contentLength(length).build();
+        }
+        return response.body(resource);
+    }
+
+    @ExceptionHandler(InvalidAvatarException.class)
+    public ResponseEntity<Map<String, Object>> invalidAvatar(InvalidAvatarException e) {
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, Object>> uploadsSaturated(TaskRejectedException e) {
+        logger.warn("Avatar upload rejected, upload pool is full");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Too many avatar uploads in progress"));
+    }
+}
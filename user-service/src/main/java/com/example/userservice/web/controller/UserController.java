@@ -1,11 +1,16 @@
 package com.example.userservice.web.controller;
 
 import com.example.userservice.model.User;
+import com.example.userservice.repository.UserSearchHit;
 import com.example.userservice.service.UserService;
 import com.example.userservice.web.dto.UserDto;
+import com.example.userservice.web.dto.UserResponse;
+import com.example.userservice.web.dto.UserSearchPage;
+import com.example.userservice.web.view.UserView;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +36,12 @@ public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    // Deep OFFSET pages get linearly slower; ranked search is for the first few pages
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int MIN_SEARCH_LENGTH = 3;
+
     private final UserService userService;
     private final Tracer tracer;
 
@@ -53,6 +65,14 @@ public class UserController {
         }
     }
 
+    private static int projection(String view, String fields, UserView defaultView) {
+        try {
+            return UserView.resolve(view, fields, defaultView);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @Operation(
             summary = "Get user health check",
             description = "Returns health status of user service"
@@ -84,9 +104,14 @@ public class UserController {
 
     @GetMapping
     @Operation(summary = "Get all users", description = "Retrieve all users from the system")
-    public ResponseEntity<List<User>> getAllUsers(
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @Parameter(description = "compact, list or full") @RequestParam(required = false) String view,
+            @Parameter(description = "Comma-separated fields, e.g. id,username,avatarUrl; overrides view")
+            @RequestParam(required = false) String fields,
             @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
 
+        int projection = projection(view, fields, UserView.LIST);
+
         return executeWithTracing("get-all-users-endpoint", "/users", span -> {
             if (authUser != null) {
                 span.tag("auth.user", authUser);
@@ -100,14 +125,86 @@ public class UserController {
             span.tag("users.count", String.valueOf(users.size()));
             logger.info("Returning {} users", users.size());
 
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(users.stream()
+                    .map(user -> UserResponse.of(user, projection))
+                    .toList());
+        });
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete users", description = "Users whose username or full name starts with the prefix")
+    public ResponseEntity<List<UserResponse>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "compact, list or full") @RequestParam(required = false) String view,
+            @Parameter(description = "Comma-separated fields, e.g. id,username,avatarUrl; overrides view")
+            @RequestParam(required = false) String fields) {
+
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must not be blank");
+        }
+        if (limit < 1 || limit > MAX_AUTOCOMPLETE_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_AUTOCOMPLETE_LIMIT);
+        }
+        int projection = projection(view, fields, UserView.COMPACT);
+
+        return executeWithTracing("autocomplete-users-endpoint", "/users/autocomplete", span -> {
+            List<UserSearchHit> hits = userService.autocomplete(q, limit);
+
+            span.tag("users.count", String.valueOf(hits.size()));
+
+            return ResponseEntity.ok(hits.stream()
+                    .map(hit -> UserResponse.of(hit, projection))
+                    .toList());
+        });
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search users", description = "Typo-tolerant search on username and full name, best matches first")
+    public ResponseEntity<UserSearchPage> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "compact, list or full") @RequestParam(required = false) String view,
+            @Parameter(description = "Comma-separated fields, e.g. id,username,avatarUrl; overrides view")
+            @RequestParam(required = false) String fields) {
+
+        if (q.trim().length() < MIN_SEARCH_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "q must have at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE || page < 0 || (page + 1L) * size > MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "size must be between 1 and " + MAX_PAGE_SIZE + " and results are limited to the first "
+                            + MAX_SEARCH_RESULTS);
+        }
+        int projection = projection(view, fields, UserView.LIST);
+
+        return executeWithTracing("search-users-endpoint", "/users/search", span -> {
+            List<UserSearchHit> hits = userService.searchUsers(q, page, size);
+            boolean hasNext = hits.size() > size;
+
+            List<UserResponse> items = hits.stream()
+                    .limit(size)
+                    .map(hit -> UserResponse.of(hit, projection))
+                    .toList();
+
+            span.tag("users.count", String.valueOf(items.size()));
+
+            return ResponseEntity.ok(new UserSearchPage(items, page, size, hasNext));
         });
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieve a specific user by their ID")
-    public ResponseEntity<User> getUserById(@PathVariable Long id,
-                                            @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id,
+            @Parameter(description = "compact, list or full") @RequestParam(required = false) String view,
+            @Parameter(description = "Comma-separated fields, e.g. id,username,avatarUrl; overrides view")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+
+        int projection = projection(view, fields, UserView.FULL);
 
         return executeWithTracing("get-user-by-id-endpoint", "/users/{id}", span -> {
             span.tag("user.id", id.toString());
@@ -124,14 +221,19 @@ public class UserController {
             span.tag("user.username", user.getUsername());
             logger.info("Returning user: {}", user.getUsername());
 
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(UserResponse.of(user, projection));
         });
     }
 
     @GetMapping("/username/{username}")
     @Operation(summary = "Get user by username", description = "Retrieve a specific user by their username")
-    public ResponseEntity<User> getUserByUsername(@PathVariable String username,
-                                                  @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+    public ResponseEntity<UserResponse> getUserByUsername(@PathVariable String username,
+            @Parameter(description = "compact, list or full") @RequestParam(required = false) String view,
+            @Parameter(description = "Comma-separated fields, e.g. id,username,avatarUrl; overrides view")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+
+        int projection = projection(view, fields, UserView.FULL);
 
         return executeWithTracing("get-user-by-username-endpoint", "/users/username/{username}", span -> {
             span.tag("user.username", username);
@@ -148,14 +250,14 @@ public class UserController {
             span.tag("user.id", user.getId().toString());
             logger.info("Returning user: {} with ID: {}", username, user.getId());
 
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(UserResponse.of(user, projection));
         });
     }
 
     @PostMapping
     @Operation(summary = "Create new user", description = "Create a new user in the system")
-    public ResponseEntity<User> createUser(@RequestBody UserDto userDto,
-                                           @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+    public ResponseEntity<UserResponse> createUser(@RequestBody UserDto userDto,
+                                                   @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
 
         return executeWithTracing("create-user-endpoint", "/users", span -> {
             span.tag("user.username", userDto.getUsername());
@@ -173,14 +275,14 @@ public class UserController {
             span.tag("operation.result", "success");
             logger.info("User created: {} with ID: {}", createdUser.getUsername(), createdUser.getId());
 
-            return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
+            return new ResponseEntity<>(UserResponse.of(createdUser, UserView.FULL.fields()), HttpStatus.CREATED);
         });
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update user", description = "Update an existing user")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody UserDto userDto,
-                                           @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @RequestBody UserDto userDto,
+                                                   @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
 
         return executeWithTracing("update-user-endpoint", "/users/{id}", span -> {
             span.tag("user.id", id.toString());
@@ -198,7 +300,7 @@ public class UserController {
             span.tag("operation.result", "success");
             logger.info("User updated: {}", updatedUser.getUsername());
 
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(UserResponse.of(updatedUser, UserView.FULL.fields()));
         });
     }
 
@@ -228,8 +330,8 @@ public class UserController {
 
     @PutMapping("/{id}/avatar")
     @Operation(summary = "Update user avatar", description = "Update a user's avatar URL")
-    public ResponseEntity<User> updateAvatar(@PathVariable Long id, @RequestParam String avatarUrl,
-                                             @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
+    public ResponseEntity<UserResponse> updateAvatar(@PathVariable Long id, @RequestParam String avatarUrl,
+                                                     @RequestHeader(value = "X-Auth-User", required = false) String authUser) {
 
         return executeWithTracing("update-avatar-endpoint", "/users/{id}/avatar", span -> {
             span.tag("user.id", id.toString());
@@ -247,7 +349,7 @@ public class UserController {
             span.tag("operation.result", "success");
             logger.info("Avatar updated for user: {}", updatedUser.getUsername());
 
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(UserResponse.of(updatedUser, UserView.FULL.fields()));
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.userservice.web.dto;
+
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserSearchHit;
+import com.example.userservice.web.json.UserResponseSerializer;
+import com.example.userservice.web.view.UserView;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * User as returned by the API. Values are copied out of the entity inside the request,
+ * so serialization never touches a Hibernate proxy or lazy state. {@code fields} is the
+ * {@link com.example.userservice.web.view.UserField} mask of what gets written.
+ */
+@JsonSerialize(using = UserResponseSerializer.class)
+public record UserResponse(Long id,
+                           String username,
+                           String fullName,
+                           String avatarUrl,
+                           String email,
+                           String bio,
+                           int fields) {
+
+    public static UserResponse of(User user, int fields) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getFullName(),
+                user.getAvatarUrl(), user.getEmail(), user.getBio(), fields);
+    }
+
+    /**
+     * Search hits carry no email or bio, so those fields are dropped from the mask.
+     */
+    public static UserResponse of(UserSearchHit hit, int fields) {
+        return new UserResponse(hit.getId(), hit.getUsername(), hit.getFullName(), hit.getAvatarUrl(),
+                null, null, fields & UserView.LIST.fields());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.userservice.web.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results. {@code hasNext} is known from fetching one extra
+ * row, so no total count is computed.
+ */
+public record UserSearchPage(List<UserResponse> items, int page, int size, boolean hasNext) {
+}
@@ -0,0 +1,55 @@
+package com.example.userservice.web.json;
+
+import com.example.userservice.web.dto.UserResponse;
+import com.example.userservice.web.view.UserField;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Hand-written writer for {@link UserResponse}: no bean introspection or reflective
+ * getter calls, field names are pre-encoded and only the projected fields are emitted.
+ * The generator writes straight into the response output stream.
+ */
+public class UserResponseSerializer extends StdSerializer<UserResponse> {
+
+    public UserResponseSerializer() {
+        super(UserResponse.class);
+    }
+
+    @Override
+    public void serialize(UserResponse user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int fields = user.fields();
+        gen.writeStartObject(user);
+
+        if (UserField.ID.in(fields)) {
+            gen.writeFieldName(UserField.ID.jsonName());
+            if (user.id() != null) {
+                gen.writeNumber(user.id());
+            } else {
+                gen.writeNull();
+            }
+        }
+        writeString(gen, UserField.USERNAME, user.username(), fields);
+        writeString(gen, UserField.FULL_NAME, user.fullName(), fields);
+        writeString(gen, UserField.AVATAR_URL, user.avatarUrl(), fields);
+        writeString(gen, UserField.EMAIL, user.email(), fields);
+        writeString(gen, UserField.BIO, user.bio(), fields);
+
+        gen.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator gen, UserField field, String value, int fields) throws IOException {
+        if (!field.in(fields)) {
+            return;
+        }
+        gen.writeFieldName(field.jsonName());
+        if (value != null) {
+            gen.writeString(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.web.view;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Fields a user response can carry. Each field owns one bit of a projection mask and
+ * its JSON name pre-encoded, so the serializer never builds or quotes names per call.
+ */
+public enum UserField {
+    ID("id"),
+    USERNAME("username"),
+    FULL_NAME("fullName"),
+    AVATAR_URL("avatarUrl"),
+    EMAIL("email"),
+    BIO("bio");
+
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final SerializedString jsonName;
+    private final int bit;
+
+    UserField(String jsonName) {
+        this.jsonName = new SerializedString(jsonName);
+        this.bit = 1 << ordinal();
+    }
+
+    public SerializedString jsonName() {
+        return jsonName;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public boolean in(int mask) {
+        return (mask & bit) != 0;
+    }
+
+    public static int mask(UserField... fields) {
+        int mask = 0;
+        for (UserField field : fields) {
+            mask |= field.bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Parses a {@code ?fields=} value such as {@code id,username,avatarUrl}.
+     *
+     * @throws IllegalArgumentException if a name is not a known field
+     */
+    public static int parse(String fields) {
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            mask |= byJsonName(trimmed).bit;
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+        return mask;
+    }
+
+    private static UserField byJsonName(String name) {
+        for (UserField field : values()) {
+            if (field.jsonName.getValue().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
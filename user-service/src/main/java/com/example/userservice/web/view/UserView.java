@@ -0,0 +1,46 @@
+package com.example.userservice.web.view;
+
+import static com.example.userservice.web.view.UserField.AVATAR_URL;
+import static com.example.userservice.web.view.UserField.BIO;
+import static com.example.userservice.web.view.UserField.EMAIL;
+import static com.example.userservice.web.view.UserField.FULL_NAME;
+import static com.example.userservice.web.view.UserField.ID;
+import static com.example.userservice.web.view.UserField.USERNAME;
+
+import java.util.Locale;
+
+/**
+ * Predefined response shapes. List endpoints default to {@link #LIST}, which leaves out
+ * the long {@code bio} and the email; single-user endpoints default to {@link #FULL}.
+ */
+public enum UserView {
+    COMPACT(UserField.mask(ID, USERNAME, AVATAR_URL)),
+    LIST(UserField.mask(ID, USERNAME, FULL_NAME, AVATAR_URL)),
+    FULL(UserField.ALL);
+
+    private final int fields;
+
+    UserView(int fields) {
+        this.fields = fields;
+    }
+
+    public int fields() {
+        return fields;
+    }
+
+    /**
+     * Resolves the projection for a request: an explicit {@code ?fields=} list wins over
+     * {@code ?view=}, which wins over the endpoint default.
+     *
+     * @throws IllegalArgumentException for an unknown view or field name
+     */
+    public static int resolve(String view, String fields, UserView defaultView) {
+        if (fields != null && !fields.isBlank()) {
+            return UserField.parse(fields);
+        }
+        if (view != null && !view.isBlank()) {
+            return valueOf(view.trim().toUpperCase(Locale.ROOT)).fields;
+        }
+        return defaultView.fields;
+    }
+}
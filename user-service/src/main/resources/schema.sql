@@ -0,0 +1,13 @@
+-- Search indexes on users; runs after Hibernate has created/updated the table
+-- (spring.jpa.defer-datasource-initialization) and is safe to re-run on every start.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Prefix lookup (autocomplete): byte-order b-trees serve both LIKE 'abc%' and the
+-- ORDER BY of the same expression, so a LIMIT stops after a handful of index entries
+CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users ((lower(username) COLLATE "C"));
+CREATE INDEX IF NOT EXISTS idx_users_full_name_prefix ON users ((lower(full_name) COLLATE "C"));
+
+-- Typo-tolerant search: trigram GIN indexes serve the % and <% similarity operators
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (lower(full_name) gin_trgm_ops);